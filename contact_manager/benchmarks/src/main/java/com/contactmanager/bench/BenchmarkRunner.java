@@ -0,0 +1,203 @@
+package com.contactmanager.bench;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the benchmarks with the gc profiler and optionally compares them with a baseline
+ * <p>
+ * java -jar target/benchmarks.jar [regex...]                      run and print a summary
+ * java -jar target/benchmarks.jar -save-baseline baseline.json    run and record the scores
+ * java -jar target/benchmarks.jar -baseline baseline.json [-tolerance 0.10]
+ *                                                                 run and exit with 1 on a regression
+ * The full JMH command line is still there: java -cp target/benchmarks.jar org.openjdk.jmh.Main -h
+ * <p>
+ * Interview Point: a benchmark counts as regressed only if it is worse than the
+ * baseline by more than the tolerance even after giving it the benefit of its own
+ * error margin - so run-to-run noise does not fail the build, a real slowdown does.
+ * A baseline is only meaningful on the machine (and JDK) that recorded it.
+ * Allocation (bytes/op from the gc profiler) is shown next to each score; it is
+ * nearly noise-free, so a jump there is usually the first sign of a slowdown.
+ */
+public class BenchmarkRunner {
+
+    private static final double DEFAULT_TOLERANCE = 0.10;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String baselineFile = null;
+        String saveFile = null;
+        double tolerance = DEFAULT_TOLERANCE;
+        List<String> includes = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-baseline" -> baselineFile = args[++i];
+                case "-save-baseline" -> saveFile = args[++i];
+                case "-tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> includes.add(args[i]);
+            }
+        }
+
+        // fail before spending minutes on the run
+        Map<String, Score> baseline = null;
+        if (baselineFile != null) {
+            File file = new File(baselineFile);
+            if (!file.isFile()) {
+                System.err.println("Baseline " + file.getAbsolutePath() + " not found - record one on this machine with:");
+                System.err.println("  java -jar target/benchmarks.jar -save-baseline " + baselineFile);
+                System.exit(2);
+            }
+            baseline = MAPPER.readValue(file, new TypeReference<TreeMap<String, Score>>() {
+            });
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().addProfiler(GCProfiler.class);
+        for (String include : includes) {
+            options.include(include);
+        }
+        Map<String, Score> current = toScores(new Runner(options.build()).run());
+
+        if (saveFile != null) {
+            MAPPER.writeValue(new File(saveFile), current);
+            System.out.println("\nBaseline saved to " + saveFile + " (" + current.size() + " benchmarks)");
+        }
+
+        if (baseline == null) {
+            printSummary(current);
+            return;
+        }
+        int regressions = compare(current, baseline, tolerance);
+        if (regressions > 0) {
+            System.err.printf("%n%d benchmark(s) regressed by more than %.0f%% against %s%n",
+                    regressions, tolerance * 100, baselineFile);
+            System.exit(1);
+        }
+        System.out.printf("%nNo regressions beyond %.0f%% against %s%n", tolerance * 100, baselineFile);
+    }
+
+    /**
+     * One score per benchmark and parameter combination, e.g. "JsonBenchmark.writePage:mapper=cbor,pageSize=50"
+     */
+    private static Map<String, Score> toScores(Collection<RunResult> results) {
+        Map<String, Score> scores = new TreeMap<>();
+        for (RunResult result : results) {
+            Result<?> primary = result.getPrimaryResult();
+            Score score = new Score();
+            score.score = primary.getScore();
+            score.error = Double.isNaN(primary.getScoreError()) ? 0 : primary.getScoreError();
+            score.unit = primary.getScoreUnit();
+            score.allocBytesPerOp = -1;
+            for (Map.Entry<String, Result> secondary : result.getSecondaryResults().entrySet()) {
+                if (secondary.getKey().endsWith("gc.alloc.rate.norm")) {
+                    score.allocBytesPerOp = secondary.getValue().getScore();
+                }
+            }
+            scores.put(name(result.getParams()), score);
+        }
+        return scores;
+    }
+
+    private static String name(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        // drop the package: class and method are enough to tell them apart
+        String[] parts = benchmark.split("\\.");
+        StringBuilder name = new StringBuilder(parts[parts.length - 2]).append('.').append(parts[parts.length - 1]);
+        String separator = ":";
+        for (String key : params.getParamsKeys()) {
+            name.append(separator).append(key).append('=').append(params.getParam(key));
+            separator = ",";
+        }
+        return name.toString();
+    }
+
+    private static void printSummary(Map<String, Score> current) {
+        System.out.printf("%n%-70s %16s %12s%n", "Benchmark", "Score", "B/op");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score score = entry.getValue();
+            System.out.printf("%-70s %16s %12s%n", entry.getKey(), score.format(), alloc(score));
+        }
+    }
+
+    /**
+     * Prints current against baseline
+     *
+     * @return number of regressed benchmarks
+     */
+    private static int compare(Map<String, Score> current, Map<String, Score> baseline, double tolerance) {
+        int regressions = 0;
+        System.out.printf("%n%-70s %16s %16s %8s %12s  %s%n",
+                "Benchmark", "Score", "Baseline", "Change", "B/op", "Status");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            String status;
+            String change = "";
+            if (before == null) {
+                status = "new";
+            } else if (!now.unit.equals(before.unit)) {
+                status = "unit changed (" + before.unit + ")";
+            } else {
+                double delta = (now.score - before.score) / before.score;
+                change = String.format("%+.1f%%", delta * 100);
+                if (now.isWorseThan(before, tolerance)) {
+                    status = "REGRESSED";
+                    regressions++;
+                } else {
+                    status = "ok";
+                }
+            }
+            System.out.printf("%-70s %16s %16s %8s %12s  %s%n", entry.getKey(), now.format(),
+                    before == null ? "-" : before.format(), change, alloc(now), status);
+        }
+        return regressions;
+    }
+
+    private static String alloc(Score score) {
+        return score.allocBytesPerOp < 0 ? "-" : String.format("%.1f", score.allocBytesPerOp);
+    }
+
+    /**
+     * One benchmark's result, as stored in the baseline file
+     */
+    public static class Score {
+        public double score;
+        public double error;
+        public String unit;
+        public double allocBytesPerOp;
+
+        // throughput units are ops/time: higher is better; time units (ms/op): lower is better
+        private boolean higherIsBetter() {
+            return unit.startsWith("ops/");
+        }
+
+        private boolean isWorseThan(Score baseline, double tolerance) {
+            if (higherIsBetter()) {
+                return score + error < baseline.score * (1 - tolerance);
+            }
+            return score - error > baseline.score * (1 + tolerance);
+        }
+
+        private String format() {
+            return String.format("%.1f %s", score, unit);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.contactmanager.bench;
+
+import com.contactmanager.dao.AsyncContactDAO;
+import com.contactmanager.dao.CachingContactDAO;
+import com.contactmanager.dao.ContactDAO;
+import com.contactmanager.dao.MeteredContactDAO;
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactPage;
+import com.contactmanager.service.ContactService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContactService operations over the decorator stack the API server builds,
+ * with InMemoryContactDAO where ContactDAOImpl would be
+ * <p>
+ * Interview Point: with the database taken out, what is left is our own
+ * overhead per request - validation, metrics, caching, copying, the async
+ * executor hop. stack=plain is MeteredContactDAO over the in-memory DAO;
+ * stack=cached puts CachingContactDAO on top, as ApiServer does by default.
+ * <p>
+ * The service logs to System.out on every write; that is silenced during the
+ * run so console I/O is not what gets measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactServiceBenchmark {
+
+    private static final int CONTACTS = 10_000;
+
+    @Param({"plain", "cached"})
+    public String stack;
+
+    private ContactService service;
+    private AsyncContactDAO asyncDao;
+    private Contact update;
+    private PrintStream stdout;
+
+    private int nextId;
+    private long nextPhone;
+
+    @Setup
+    public void setUp() {
+        ContactDAO dao = new MeteredContactDAO(InMemoryContactDAO.withSampleContacts(CONTACTS));
+        if (stack.equals("cached")) {
+            dao = new CachingContactDAO(dao, 64L * 1024 * 1024, TimeUnit.MINUTES.toMillis(5));
+        }
+        asyncDao = new AsyncContactDAO(dao, 2, 1000, 0);
+        service = new ContactService(dao, asyncDao);
+
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        service.warmUp();
+
+        update = service.getContactById(CONTACTS / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+        asyncDao.shutdown();
+    }
+
+    // cycles through every stored id, so the cache sees the whole table
+    private int nextId() {
+        nextId = nextId % CONTACTS + 1;
+        return nextId;
+    }
+
+    @Benchmark
+    public Contact getContactById() {
+        return service.getContactById(nextId());
+    }
+
+    @Benchmark
+    public Contact getContactByIdAsync() {
+        return service.getContactByIdAsync(nextId()).join();
+    }
+
+    @Benchmark
+    public ContactPage getContactsPage() {
+        return service.getContactsPage(null, ContactService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ContactPage searchContactsPage() {
+        return service.searchContactsPage("ali", null, 20);
+    }
+
+    @Benchmark
+    public Contact updateContact() {
+        update.setAddress("House " + nextId() + ", Street 7, Delhi, India");
+        return service.updateContact(update).getContact();
+    }
+
+    @Benchmark
+    public Contact addAndDeleteContact() {
+        // phone numbers outside the sample range, reused once deleted
+        nextPhone = (nextPhone + 1) % CONTACTS;
+        Contact added = service.addContact(new Contact("Zoya", "Bench", String.valueOf(8_000_000_000L + nextPhone),
+                null, "House 1, Street 1, Delhi, India"));
+        return service.deleteContact(added.getId());
+    }
+}
@@ -0,0 +1,337 @@
+package com.contactmanager.bench;
+
+import com.contactmanager.dao.ContactDAO;
+import com.contactmanager.model.BatchResult;
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.UpsertResult;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * ContactDAO kept in memory, so the layers above JDBC can be benchmarked on their own
+ * <p>
+ * Behaves like ContactDAOImpl where it matters to callers: ids and versions are
+ * generated, phone numbers (digits only) and emails are unique, every read returns
+ * a fresh copy (as a new row from a ResultSet would be), and deletes leave a
+ * tombstone in the change feed. All methods are synchronized - one lock, like a
+ * single table without row locking; fine for single-threaded benchmarks.
+ */
+public class InMemoryContactDAO implements ContactDAO {
+
+    private static final Comparator<Contact> BY_NAME =
+            Comparator.comparing(Contact::getFirstName).thenComparingInt(Contact::getId);
+
+    private final TreeMap<Integer, Contact> contacts = new TreeMap<>();
+    private final Map<String, Integer> idByPhone = new HashMap<>();
+    private final Map<String, Integer> idByEmail = new HashMap<>();
+    // deleted id -> version of the delete
+    private final Map<Integer, Long> tombstones = new HashMap<>();
+
+    private int nextId = 1;
+    private long nextVersion = 1;
+
+    /**
+     * Sample contacts with unique phones and emails, not yet stored (id 0)
+     */
+    public static List<Contact> sampleContacts(int count) {
+        String[] firstNames = {"Aarav", "Alice", "Bob", "Chen", "Diya", "Elena", "Farhan", "Grace", "Hiro", "Isha"};
+        List<Contact> samples = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            String firstName = firstNames[i % firstNames.length];
+            samples.add(new Contact(firstName, i % 5 == 0 ? null : "Last" + i,
+                    String.valueOf(9_000_000_000L + i), firstName.toLowerCase(Locale.ROOT) + i + "@example.com",
+                    "House " + i + ", Street " + (i % 100) + ", Delhi, India"));
+        }
+        return samples;
+    }
+
+    /**
+     * DAO already holding count sample contacts, with ids 1..count
+     */
+    public static InMemoryContactDAO withSampleContacts(int count) {
+        InMemoryContactDAO dao = new InMemoryContactDAO();
+        dao.addContacts(sampleContacts(count));
+        return dao;
+    }
+
+    private static String digits(String phone) {
+        return phone == null ? null : phone.replaceAll("[^0-9]", "");
+    }
+
+    private static boolean matches(Contact contact, String name) {
+        String needle = name.toLowerCase(Locale.ROOT);
+        return contact.getFirstName().toLowerCase(Locale.ROOT).contains(needle)
+                || (contact.getLastName() != null && contact.getLastName().toLowerCase(Locale.ROOT).contains(needle));
+    }
+
+    // null if phone or email belongs to another contact
+    private String conflict(Contact contact, int ownId) {
+        Integer phoneOwner = idByPhone.get(digits(contact.getPhone()));
+        if (phoneOwner != null && phoneOwner != ownId) {
+            return "Duplicate phone number";
+        }
+        Integer emailOwner = contact.getEmail() == null ? null : idByEmail.get(contact.getEmail());
+        if (emailOwner != null && emailOwner != ownId) {
+            return "Duplicate email";
+        }
+        return null;
+    }
+
+    private Contact store(Contact contact, int id, Timestamp createdAt) {
+        Contact previous = contacts.get(id);
+        if (previous != null) {
+            idByPhone.remove(digits(previous.getPhone()));
+            idByEmail.remove(previous.getEmail());
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Contact stored = new Contact(contact);
+        stored.setId(id);
+        stored.setCreatedAt(createdAt == null ? now : createdAt);
+        stored.setUpdateAt(now);
+        stored.setVersion(nextVersion++);
+        contacts.put(id, stored);
+        idByPhone.put(digits(stored.getPhone()), id);
+        if (stored.getEmail() != null) {
+            idByEmail.put(stored.getEmail(), id);
+        }
+        tombstones.remove(id);
+        return new Contact(stored);
+    }
+
+    private static List<Contact> copies(Collection<Contact> stored, int limit) {
+        List<Contact> result = new ArrayList<>(Math.min(stored.size(), limit));
+        for (Contact contact : stored) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(new Contact(contact));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Contact addContact(Contact contact) {
+        if (conflict(contact, 0) != null) {
+            return null;
+        }
+        Contact stored = store(contact, nextId++, null);
+        contact.setId(stored.getId());
+        return stored;
+    }
+
+    @Override
+    public synchronized BatchResult addContacts(List<Contact> batch) {
+        BatchResult result = new BatchResult(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Contact stored = addContact(batch.get(i));
+            if (stored == null) {
+                result.recordFailure(i, "Duplicate phone number or email");
+            } else {
+                result.recordSuccess(i, stored.getId());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized UpsertResult upsertContact(Contact contact, UpsertKey key) {
+        Integer existing = key == UpsertKey.EMAIL
+                ? idByEmail.get(contact.getEmail())
+                : idByPhone.get(digits(contact.getPhone()));
+        if (existing == null) {
+            Contact stored = addContact(contact);
+            return stored == null ? UpsertResult.failed("Duplicate phone number or email") : UpsertResult.inserted(stored);
+        }
+        String conflict = conflict(contact, existing);
+        if (conflict != null) {
+            return UpsertResult.failed(conflict);
+        }
+        return UpsertResult.updated(store(contact, existing, contacts.get(existing).getCreatedAt()));
+    }
+
+    @Override
+    public synchronized List<UpsertResult> upsertContacts(List<Contact> batch, UpsertKey key) {
+        List<UpsertResult> results = new ArrayList<>(batch.size());
+        for (Contact contact : batch) {
+            results.add(upsertContact(contact, key));
+        }
+        return results;
+    }
+
+    @Override
+    public synchronized long copyContacts(Iterator<Contact> rows, Consumer<Contact> inserted) {
+        long count = 0;
+        while (rows.hasNext()) {
+            Contact stored = addContact(rows.next());
+            if (stored != null) {
+                inserted.accept(stored);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized Set<String> findExistingPhones(Collection<String> phoneDigits) {
+        Set<String> existing = new HashSet<>();
+        for (String phone : phoneDigits) {
+            if (idByPhone.containsKey(phone)) {
+                existing.add(phone);
+            }
+        }
+        return existing;
+    }
+
+    @Override
+    public synchronized Contact getContactById(int id) {
+        Contact stored = contacts.get(id);
+        return stored == null ? null : new Contact(stored);
+    }
+
+    @Override
+    public synchronized List<Contact> getAllContacts() {
+        return copies(contacts.values(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<Contact> streamAllContacts() {
+        return getAllContacts().stream();
+    }
+
+    @Override
+    public synchronized List<Contact> getContactsAfter(int afterId, int limit) {
+        return copies(contacts.tailMap(afterId, false).values(), limit);
+    }
+
+    @Override
+    public synchronized List<Contact> searchContactsAfter(String name, String afterFirstName, int afterId, int limit) {
+        List<Contact> matching = new ArrayList<>();
+        for (Contact contact : contacts.values()) {
+            if (!matches(contact, name)) {
+                continue;
+            }
+            if (afterFirstName != null) {
+                int order = contact.getFirstName().compareTo(afterFirstName);
+                if (order < 0 || (order == 0 && contact.getId() <= afterId)) {
+                    continue;
+                }
+            }
+            matching.add(contact);
+        }
+        matching.sort(BY_NAME);
+        return copies(matching, limit);
+    }
+
+    @Override
+    public List<Contact> searchContactByName(String name) {
+        return searchContactByName(name, 100);
+    }
+
+    @Override
+    public synchronized List<Contact> searchContactByName(String name, int limit) {
+        List<Contact> matching = new ArrayList<>();
+        for (Contact contact : contacts.values()) {
+            if (matches(contact, name)) {
+                matching.add(contact);
+                if (matching.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return copies(matching, limit);
+    }
+
+    @Override
+    public synchronized Contact updateContact(Contact contact) {
+        Contact existing = contacts.get(contact.getId());
+        if (existing == null || conflict(contact, contact.getId()) != null) {
+            return null;
+        }
+        return store(contact, contact.getId(), existing.getCreatedAt());
+    }
+
+    @Override
+    public synchronized Contact deleteContact(int id) {
+        Contact removed = contacts.remove(id);
+        if (removed == null) {
+            return null;
+        }
+        idByPhone.remove(digits(removed.getPhone()));
+        idByEmail.remove(removed.getEmail());
+        tombstones.put(id, nextVersion++);
+        return removed;
+    }
+
+    @Override
+    public synchronized BatchResult updateContacts(List<Contact> batch) {
+        BatchResult result = new BatchResult(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Contact stored = updateContact(batch.get(i));
+            if (stored == null) {
+                result.recordFailure(i, "Contact not found");
+            } else {
+                result.recordSuccess(i, stored.getId());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized BatchResult deleteContacts(List<Integer> ids) {
+        BatchResult result = new BatchResult(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (deleteContact(ids.get(i)) == null) {
+                result.recordFailure(i, "Contact not found");
+            } else {
+                result.recordSuccess(i, ids.get(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized int getContactCount() {
+        return contacts.size();
+    }
+
+    @Override
+    public long estimateContactCount() {
+        return getContactCount();
+    }
+
+    @Override
+    public synchronized long getChangeHorizon() {
+        // no transactions in flight - every version handed out is final
+        return nextVersion;
+    }
+
+    @Override
+    public synchronized List<ContactChange> getChangesSince(long afterVersion, int afterId, long beforeVersion, int limit) {
+        List<ContactChange> changes = new ArrayList<>();
+        for (Contact contact : contacts.values()) {
+            changes.add(ContactChange.upserted(new Contact(contact)));
+        }
+        for (Map.Entry<Integer, Long> tombstone : tombstones.entrySet()) {
+            changes.add(ContactChange.deleted(tombstone.getKey(), tombstone.getValue()));
+        }
+        changes.removeIf(change -> change.getVersion() >= beforeVersion
+                || change.getVersion() < afterVersion
+                || (change.getVersion() == afterVersion && change.getId() <= afterId));
+        changes.sort(Comparator.comparingLong(ContactChange::getVersion).thenComparingInt(ContactChange::getId));
+        return changes.size() > limit ? new ArrayList<>(changes.subList(0, limit)) : changes;
+    }
+}
@@ -0,0 +1,149 @@
+package com.contactmanager.bench;
+
+import com.contactmanager.api.CborCodec;
+import com.contactmanager.api.StreamingJsonMapper;
+import com.contactmanager.model.Contact;
+import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contact serialization and deserialization, per mapper the API server can use
+ * - jackson: Javalin's reflective default
+ * - streaming: StreamingJsonMapper (JSON responses)
+ * - cbor: CborCodec, the same codecs writing CBOR (Accept: application/cbor)
+ * <p>
+ * The page benchmark writes the contact list the way GET /api/contacts does
+ * (writeToOutputStream into a reused buffer); the single-contact ones are the
+ * GET-by-id response and the POST/PUT body.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"jackson", "streaming", "cbor"})
+    public String mapper;
+
+    // contacts per page
+    @Param({"50"})
+    public int pageSize;
+
+    /**
+     * The three operations, so JSON mappers and the CBOR codec run the same benchmark code
+     */
+    private interface Codec {
+        byte[] write(Contact contact) throws IOException;
+
+        void writePage(List<Contact> page, OutputStream out);
+
+        Contact read(byte[] body);
+    }
+
+    private Codec codec;
+    private Contact contact;
+    private List<Contact> page;
+    private byte[] body;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() throws IOException {
+        codec = mapper.equals("jackson") ? jsonCodec(new JavalinJackson())
+                : mapper.equals("cbor") ? cborCodec(new CborCodec())
+                : jsonCodec(new StreamingJsonMapper());
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        page = new ArrayList<>(pageSize);
+        int id = 1;
+        for (Contact sample : InMemoryContactDAO.sampleContacts(pageSize)) {
+            sample.setId(id++);
+            sample.setCreatedAt(now);
+            sample.setUpdateAt(now);
+            sample.setVersion(1000 + id);
+            page.add(sample);
+        }
+        contact = page.get(0);
+        body = writeContact();
+        out = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    private static Codec jsonCodec(JsonMapper jsonMapper) {
+        return new Codec() {
+            @Override
+            public byte[] write(Contact contact) throws IOException {
+                try (InputStream in = jsonMapper.toJsonStream(contact, Contact.class)) {
+                    return in.readAllBytes();
+                }
+            }
+
+            @Override
+            public void writePage(List<Contact> page, OutputStream out) {
+                jsonMapper.writeToOutputStream(page.stream(), out);
+            }
+
+            @Override
+            public Contact read(byte[] body) {
+                return jsonMapper.fromJsonStream(new ByteArrayInputStream(body), Contact.class);
+            }
+        };
+    }
+
+    private static Codec cborCodec(CborCodec cbor) {
+        return new Codec() {
+            @Override
+            public byte[] write(Contact contact) {
+                return cbor.toBytes(contact);
+            }
+
+            @Override
+            public void writePage(List<Contact> page, OutputStream out) {
+                cbor.writeArray(page.stream(), out);
+            }
+
+            @Override
+            public Contact read(byte[] body) {
+                return cbor.read(new ByteArrayInputStream(body), Contact.class);
+            }
+        };
+    }
+
+    @Benchmark
+    public byte[] writeContact() throws IOException {
+        return codec.write(contact);
+    }
+
+    @Benchmark
+    public int writePage() {
+        out.reset();
+        codec.writePage(page, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public Contact readContact() {
+        return codec.read(body);
+    }
+}
@@ -0,0 +1,110 @@
+package com.contactmanager.dao;
+
+import com.contactmanager.bench.InMemoryContactDAO;
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContactDAOImpl.extractContactFromResultSet over a page of rows, without a database
+ * In this package because the mapper is package-private
+ * <p>
+ * Rows come from an in-memory CachedRowSet with the contacts table's columns, so
+ * this measures the mapping code and by-name column lookups, not the network or
+ * the driver's decoding. traced=true attaches a RequestTrace, as for a traced
+ * request, to show the cost of per-row timing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    private static final String[] COLUMNS =
+            {"id", "first_name", "last_name", "phone", "email", "address", "created_at", "updated_at", "version"};
+    private static final int[] TYPES = {Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT};
+
+    // rows mapped per operation - one API page
+    @Param({"50"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean traced;
+
+    private CachedRowSet resultSet;
+    private RequestTrace trace;
+
+    @Setup
+    public void setUp() throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(COLUMNS.length);
+        for (int i = 0; i < COLUMNS.length; i++) {
+            metaData.setColumnName(i + 1, COLUMNS[i]);
+            metaData.setColumnType(i + 1, TYPES[i]);
+        }
+
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        resultSet.setMetaData(metaData);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Contact> contacts = InMemoryContactDAO.sampleContacts(rows);
+        for (int i = 0; i < contacts.size(); i++) {
+            Contact contact = contacts.get(i);
+            resultSet.moveToInsertRow();
+            resultSet.updateInt("id", i + 1);
+            resultSet.updateString("first_name", contact.getFirstName());
+            resultSet.updateString("last_name", contact.getLastName());
+            resultSet.updateString("phone", contact.getPhone());
+            resultSet.updateString("email", contact.getEmail());
+            resultSet.updateString("address", contact.getAddress());
+            resultSet.updateTimestamp("created_at", now);
+            resultSet.updateTimestamp("updated_at", now);
+            resultSet.updateLong("version", 1000 + i);
+            resultSet.insertRow();
+        }
+        resultSet.moveToCurrentRow();
+
+        trace = traced ? new RequestTrace("benchmark") : null;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        resultSet.close();
+    }
+
+    @Benchmark
+    public void mapPage(Blackhole blackhole) throws SQLException {
+        RequestTrace previous = RequestTrace.attach(trace);
+        try {
+            resultSet.beforeFirst();
+            while (resultSet.next()) {
+                blackhole.consume(ContactDAOImpl.extractContactFromResultSet(resultSet));
+            }
+        } finally {
+            RequestTrace.attach(previous);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.contactmanager.service;
+
+import com.contactmanager.bench.InMemoryContactDAO;
+import com.contactmanager.model.Contact;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Input validation run on every add and update
+ * In this package because isValidContact/isValidEmail are package-private
+ * <p>
+ * Interview Point: isValidEmail uses String.matches, which compiles the regex on
+ * every call - the gc profiler shows that as bytes allocated per validation.
+ * Only valid input is measured for isValidContact: rejections print to System.out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ContactService service;
+    private Contact contact;
+
+    @Setup
+    public void setUp() {
+        service = new ContactService(new InMemoryContactDAO());
+        contact = new Contact("Alice", "Smith", "+91 98765-43210", "alice.smith@example.com",
+                "House 12, Street 4, Delhi, India");
+    }
+
+    @Benchmark
+    public boolean isValidContact() {
+        return service.isValidContact(contact);
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return service.isValidEmail("alice.smith@example.com");
+    }
+
+    @Benchmark
+    public boolean isValidEmailRejected() {
+        return service.isValidEmail("alice.smith@example");
+    }
+}
@@ -33,8 +33,8 @@ public class DAOTest {
         // TEST 2: Add new contact
         System.out.println("TEST 2: Adding new contact...");
         Contact newContact = new Contact("Yash", "Patil", "999999999", "yash@gmail.com", "Pune, India");
-        boolean added = dao.addContact(newContact);
-        System.out.println(added ? "✓ Contact added successfully!" : "✗ Failed to add contact");
+        Contact added = dao.addContact(newContact);
+        System.out.println(added != null ? "✓ Contact added successfully! ID: " + added.getId() : "✗ Failed to add contact");
 
         System.out.println("\n-------------------------------------------\n");
 
@@ -64,12 +64,13 @@ public class DAOTest {
         if (contact != null) {
             contact.setPhone("111111111");
             contact.setAddress("Updated Aadhar Address, India");
-            boolean updated = dao.updateContact(contact);  // Fixed typo
-            System.out.println(updated ? "✓ Contact updated successfully!" : "✗ Failed to update");
+            Contact updated = dao.updateContact(contact);  // Fixed typo
+            System.out.println(updated != null ? "✓ Contact updated successfully!" : "✗ Failed to update");
 
-            // Fetch again to verify
-            Contact updatedContact = dao.getContactById(1);
-            System.out.println("After update: " + updatedContact.toDisplayString());
+            // UPDATE ... RETURNING already gives us the stored row
+            if (updated != null) {
+                System.out.println("After update: " + updated.toDisplayString());
+            }
         }
 
         System.out.println("\n-------------------------------------------\n");
@@ -1,5 +1,6 @@
 package com.contactmanager;
 
+import com.contactmanager.dao.CachingContactDAO;
 import com.contactmanager.dao.ContactDAO;
 import com.contactmanager.dao.ContactDAOImpl;
 import com.contactmanager.service.ContactService;
@@ -8,7 +9,7 @@ import com.contactmanager.ui.ConsoleUI;
 public class Main {
 
     public static void main(String[] args) {
-        ContactDAO dao = new ContactDAOImpl();
+        ContactDAO dao = CachingContactDAO.wrapIfEnabled(new ContactDAOImpl());
 
         ContactService service = new ContactService(dao);
 
@@ -1,9 +1,18 @@
 package com.contactmanager.api;
 
+import com.contactmanager.dao.AsyncContactDAO;
+import com.contactmanager.dao.CachingContactDAO;
 import com.contactmanager.dao.ContactDAO;
 import com.contactmanager.dao.ContactDAOImpl;
+import com.contactmanager.dao.MeteredContactDAO;
+import com.contactmanager.metrics.MetricsRegistry;
 import com.contactmanager.service.ContactService;
+import com.contactmanager.util.DatabaseConnection;
 import io.javalin.Javalin;
+import io.javalin.compression.Brotli;
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Gzip;
+import io.javalin.util.ConcurrencyUtil;
 import io.javalin.http.staticfiles.Location;
 
 
@@ -17,11 +26,46 @@ import io.javalin.http.staticfiles.Location;
  * - Serves static files (HTML, CSS, JS)
  */
 public class ApiServer {
+    /**
+     * Brotli + gzip with a minimum size; small bodies cost more to compress than they save
+     * Falls back to gzip only if the brotli native library cannot be loaded
+     */
+    private static CompressionStrategy compressionStrategy() {
+        CompressionStrategy strategy;
+        try {
+            strategy = new CompressionStrategy(new Brotli(), new Gzip());
+        } catch (Throwable e) {
+            System.err.println("Brotli unavailable, using gzip only: " + e.getMessage());
+            strategy = new CompressionStrategy(null, new Gzip());
+        }
+        strategy.setMinSizeForCompression(DatabaseConnection.getIntProperty("compression.minSizeBytes", 1024));
+        return strategy;
+    }
+
     public static void main(String[] args) {
         // Create dependencies (manual dependency injection)
-        ContactDAO dao = new ContactDAOImpl();
-        ContactService service = new ContactService(dao);
-        ContactController controller = new ContactController(service);
+        // metered inside the cache, so DAO timings are database work only
+        ContactDAO dao = CachingContactDAO.wrapIfEnabled(new MeteredContactDAO(new ContactDAOImpl()));
+        AsyncContactDAO asyncDao = AsyncContactDAO.fromProperties(dao);
+        ContactService service = new ContactService(dao, asyncDao);
+        // load in-memory indexes (autocomplete) before serving traffic
+        service.warmUp();
+        ContactJsonCache jsonCache = ContactJsonCache.fromProperties();
+        ContactController controller = new ContactController(service, jsonCache);
+
+        // Handlers run on virtual threads when the JVM has them (Java 21, see the java21 profile
+        // in pom.xml): a handler blocked on JDBC then parks cheaply instead of holding a platform thread
+        ConcurrencyUtil.INSTANCE.setUseLoom(DatabaseConnection.getBooleanProperty("server.virtualThreads", true));
+        LoadShedder loadShedder = LoadShedder.fromProperties();
+
+        // statistics the components already keep, exported at /metrics
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        if (dao instanceof CachingContactDAO) {
+            ((CachingContactDAO) dao).registerMetrics(metrics);
+        }
+        asyncDao.registerMetrics(metrics);
+        jsonCache.registerMetrics(metrics);
+        loadShedder.registerMetrics(metrics);
 
         // Create Javalin app with configuration
         Javalin app = Javalin.create(config -> {
@@ -34,12 +78,31 @@ public class ApiServer {
                 });
             });
 
+            // Contact types are encoded by a hand-written codec, not by reflection
+            config.jsonMapper(new StreamingJsonMapper());
+
+            // Compress responses larger than the threshold: brotli or gzip,
+            // whichever the client lists in Accept-Encoding
+            config.compression.custom(compressionStrategy());
+
             // Serve static files from src/main/resources/public
             // This will serve our HTML, CSS, JS files
-            config.staticFiles.add("/public", Location.CLASSPATH);
+            // precompress: each file is compressed once and kept in memory, not on every request
+            config.staticFiles.add(staticFiles -> {
+                staticFiles.hostedPath = "/";
+                staticFiles.directory = "/public";
+                staticFiles.location = Location.CLASSPATH;
+                staticFiles.precompress = true;
+            });
         }).start(7000); //start server on 700 port
 
     //register api routes
+        new RequestMetrics(metrics).register(app);
+        RequestTracer.fromProperties().register(app);
+        loadShedder.register(app);
+        // GET /metrics - Prometheus scrape endpoint (outside /api, so never shed)
+        app.get("/metrics", ctx -> ctx.contentType("text/plain; version=0.0.4; charset=utf-8")
+                .result(metrics.toPrometheusText()));
         controller.registerRoutes(app);
 
          // Welcome message
@@ -48,6 +111,9 @@ public class ApiServer {
         System.out.println("=".repeat(60));
         System.out.println("  API Base URL: http://localhost:7000/api");
         System.out.println("  Frontend URL: http://localhost:7000");
+        System.out.println("  Request threads: " + (ConcurrencyUtil.INSTANCE.getUseLoom() && ConcurrencyUtil.isLoomAvailable()
+                ? "virtual" : "platform (virtual threads need Java 21)"));
+        System.out.println("  Concurrency limit: " + loadShedder.getLimit() + " requests");
         System.out.println("=".repeat(60));
         System.out.println("\n  Available Endpoints:");
         System.out.println("  GET    /api/contacts           - Get all contacts");
@@ -57,6 +123,13 @@ public class ApiServer {
         System.out.println("  DELETE /api/contacts/{id}      - Delete contact");
         System.out.println("  GET    /api/contacts/search?name=xyz - Search");
         System.out.println("  GET    /api/contacts/count     - Get total count");
+        System.out.println("  GET    /api/contacts/autocomplete?q=am - Name suggestions");
+        System.out.println("  GET    /api/contacts/changes?since=xyz - Delta sync feed");
+        System.out.println("  POST   /api/contacts/import    - Bulk import CSV body");
+        System.out.println("  POST|PUT|DELETE /api/contacts/bulk - NDJSON bulk create/update/delete");
+        System.out.println("  POST   /api/contacts/upsert?key=email|phone - Insert or update");
+        System.out.println("  POST   /api/contacts/upsert/batch?key=...   - Batch upsert");
+        System.out.println("  GET    /metrics                - Prometheus metrics");
         System.out.println("\n" + "=".repeat(60));
         System.out.println("  Press Ctrl+C to stop server");
         System.out.println("=".repeat(60) + "\n");
@@ -0,0 +1,101 @@
+package com.contactmanager.api;
+
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.ContactChangePage;
+import com.contactmanager.model.ContactPage;
+import com.contactmanager.model.ContactSuggestion;
+import com.contactmanager.model.UpsertResult;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Picks the codec for a value: hand-written ContactJsonCodec methods for the
+ * API types, Jackson databind for everything else
+ * <p>
+ * Shared by StreamingJsonMapper (JSON) and CborCodec (CBOR); the format is
+ * decided only by the ObjectMapper's factory, so both write identical fields.
+ */
+class ApiValueCodec {
+
+    /**
+     * Writes one value of a known type
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(JsonGenerator gen, Object value) throws IOException;
+    }
+
+    private final ObjectMapper fallback;
+
+    // exact runtime class -> writer; the models are final in practice, so no hierarchy lookup
+    private final Map<Class<?>, ValueWriter> writers = new IdentityHashMap<>();
+
+    /**
+     * @param fallback mapper for types without a hand-written codec; its factory sets the format
+     */
+    ApiValueCodec(ObjectMapper fallback) {
+        this.fallback = fallback;
+
+        writers.put(Contact.class, (gen, value) -> ContactJsonCodec.writeContact(gen, (Contact) value));
+        writers.put(ContactSuggestion.class, (gen, value) -> ContactJsonCodec.writeSuggestion(gen, (ContactSuggestion) value));
+        writers.put(ContactPage.class, (gen, value) -> ContactJsonCodec.writePage(gen, (ContactPage) value));
+        writers.put(ContactChange.class, (gen, value) -> ContactJsonCodec.writeChange(gen, (ContactChange) value));
+        writers.put(ContactChangePage.class, (gen, value) -> ContactJsonCodec.writeChangePage(gen, (ContactChangePage) value));
+        writers.put(UpsertResult.class, (gen, value) -> ContactJsonCodec.writeUpsertResult(gen, (UpsertResult) value));
+    }
+
+    // generators from the mapper's factory can hand unknown values back to it
+    JsonFactory getFactory() {
+        return fallback.getFactory();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T read(JsonParser parser, Type targetType) throws IOException {
+        if (targetType == Contact.class) {
+            return (T) ContactJsonCodec.readContact(parser);
+        }
+        if (targetType == Contact[].class) {
+            return (T) ContactJsonCodec.readContactList(parser).toArray(new Contact[0]);
+        }
+        return fallback.readValue(parser, fallback.constructType(targetType));
+    }
+
+    /**
+     * Writes any value: hand-written codecs first, then containers, then Jackson databind
+     */
+    void writeValue(JsonGenerator gen, Object value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+
+        ValueWriter writer = writers.get(value.getClass());
+        if (writer != null) {
+            writer.write(gen, value);
+        } else if (value instanceof JsonWritable) {
+            ((JsonWritable) value).writeJson(gen);
+        } else if (value instanceof Iterable) {
+            gen.writeStartArray();
+            for (Object item : (Iterable<?>) value) {
+                writeValue(gen, item);
+            }
+            gen.writeEndArray();
+        } else if (value instanceof Object[]) {
+            gen.writeStartArray();
+            for (Object item : (Object[]) value) {
+                writeValue(gen, item);
+            }
+            gen.writeEndArray();
+        } else {
+            fallback.writeValue(gen, value);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.contactmanager.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Encodes and decodes the API types as CBOR (binary JSON, application/cbor)
+ * <p>
+ * Same codecs and field names as StreamingJsonMapper, only the bytes on the
+ * wire are shorter and cheaper to parse. Not a Javalin JsonMapper: CBOR has
+ * no string form, so only byte and stream methods exist.
+ */
+public class CborCodec {
+
+    private final ApiValueCodec codec = new ApiValueCodec(new ObjectMapper(new CBORFactory()));
+
+    /**
+     * Encodes one value
+     */
+    public byte[] toBytes(Object value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator gen = codec.getFactory().createGenerator(out)) {
+            codec.writeValue(gen, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the stream as one CBOR array, element by element, as it is consumed
+     * The output stream is flushed, not closed
+     */
+    public void writeArray(Stream<?> values, OutputStream out) {
+        try (JsonGenerator gen = codec.getFactory().createGenerator(out)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+            Iterator<?> it = values.iterator();
+            while (it.hasNext()) {
+                codec.writeValue(gen, it.next());
+            }
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes one value of targetType
+     */
+    public <T> T read(InputStream in, Type targetType) {
+        try (JsonParser parser = codec.getFactory().createParser(in)) {
+            return codec.read(parser, targetType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
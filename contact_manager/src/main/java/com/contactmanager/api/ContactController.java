@@ -1,11 +1,42 @@
 package com.contactmanager.api;
 
+import com.contactmanager.dao.ContactDAO;
+import com.contactmanager.model.BatchResult;
 import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactSuggestion;
+import com.contactmanager.model.ImportResult;
+import com.contactmanager.model.UpdateResult;
+import com.contactmanager.model.UpsertResult;
 import com.contactmanager.service.ContactService;
+import com.contactmanager.util.DatabaseConnection;
+import com.fasterxml.jackson.core.JsonGenerator;
 import io.javalin.Javalin;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
-
+import io.javalin.json.JsonMapper;
+import io.javalin.json.JsonMapperKt;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 /**
@@ -21,14 +52,35 @@ import java.util.List;
 
 public class ContactController {
 
+    // newline-delimited JSON media type
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String CBOR = "application/cbor";
+
     private final ContactService contactService;
 
+    // GET /api/contacts/{id} responses, already encoded
+    private final ContactJsonCache jsonCache;
+
+    // binary encoding of the same models, for clients sending Accept: application/cbor
+    private final CborCodec cbor = new CborCodec();
+
+    // lines of a bulk upload written per database batch
+    private final int bulkChunkSize = DatabaseConnection.getIntProperty("db.batch.size", 500);
+
+    // list ETags come from a per-process counter - off when several servers share the database
+    private final boolean collectionEtags = DatabaseConnection.getBooleanProperty("etag.collection", true);
+
     /**
      * Constructor - receives ContactService via dependency injection
      */
 
     public ContactController(ContactService contactService) {
+        this(contactService, ContactJsonCache.fromProperties());
+    }
+
+    public ContactController(ContactService contactService, ContactJsonCache jsonCache) {
         this.contactService = contactService;
+        this.jsonCache = jsonCache;
     }
 
     /**
@@ -42,17 +94,34 @@ public class ContactController {
 
 
     public void registerRoutes(Javalin app) {
-        // GET /api/contacts - Get all contacts
+        // Fixed paths are registered before /api/contacts/{id},
+        // otherwise Javalin would match "search" and "count" as an id
+
+        // GET /api/contacts/search?name=xyz - Search contacts by name
+        app.get("/api/contacts/search", this::searchContacts);
+
+        // GET /api/contacts/count - Get total count
+        app.get("/api/contacts/count", this::getContactCount);
+
+        // GET /api/contacts/autocomplete?q=am&limit=10 - Name suggestions while typing
+        app.get("/api/contacts/autocomplete", this::autocomplete);
+
+        // GET /api/contacts/changes?since=&limit= - Contacts created/updated/deleted since a watermark
+        app.get("/api/contacts/changes", this::getChanges);
+
+        // GET /api/contacts - Get all contacts (or one page with ?limit=&cursor=)
         app.get("/api/contacts", this::getAllContacts);
 
         // GET /api/contacts/{id} - Get contact by ID
         app.get("/api/contacts/{id}", this::getContactById);
 
-        // POST /api/contacts - Create new contact
-        app.get("/api/contacts/{id}", this::getContactById);
+        // POST/PUT/DELETE /api/contacts/bulk - One contact (or id) per line of an NDJSON body
+        app.post("/api/contacts/bulk", this::bulkCreate);
+        app.put("/api/contacts/bulk", this::bulkUpdate);
+        app.delete("/api/contacts/bulk", this::bulkDelete);
 
         // POST /api/contacts - Create new contact
-        app.get("/api/contacts", this::createContact);
+        app.post("/api/contacts", this::createContact);
 
         // PUT /api/contacts/{id} - Update existing contact
         app.put("/api/contacts/{id}", this::updateContact);
@@ -61,11 +130,14 @@ public class ContactController {
         // DELETE /api/contacts/{id} - Delete contact
         app.delete("/api/contacts/{id}", this::deleteContact);
 
-        // GET /api/contacts/search?name=xyz - Search contacts by name
-        app.get("/api/contacts/search", this::searchContacts);
+        // POST /api/contacts/import - Bulk import from CSV request body
+        app.post("/api/contacts/import", this::importContacts);
 
-        // GET /api/contacts/count - Get total count
-        app.get("/api/contacts/count", this::getContactCount);
+        // POST /api/contacts/upsert?key=email|phone - Insert or update one contact
+        app.post("/api/contacts/upsert", this::upsertContact);
+
+        // POST /api/contacts/upsert/batch?key=email|phone - Insert or update a JSON array of contacts
+        app.post("/api/contacts/upsert/batch", this::upsertContacts);
 
     }
 
@@ -74,6 +146,10 @@ public class ContactController {
      * GET /api/contacts
      * Returns all contacts as JSON array
      * <p>
+     * Rows are streamed from a database cursor straight into the response,
+     * so memory stays flat and the first byte goes out before the last row is read.
+     * Send "Accept: application/x-ndjson" to get one JSON object per line instead.
+     * <p>
      * Example response:
      * [
      * {"id":1,"firstName":"Amit","lastName":"Sharma",...},
@@ -83,15 +159,37 @@ public class ContactController {
 
     private void getAllContacts(Context ctx) {
 
-        try {
+        if (isPageRequest(ctx)) {
+            getContactsPage(ctx);
+            return;
+        }
 
-            List<Contact> contacts = contactService.getAllContacts();
+        // checked before the query runs - an unchanged collection costs no database work
+        if (isCollectionNotModified(ctx)) {
+            return;
+        }
+
+        try (Stream<Contact> contacts = contactService.streamAllContacts()) {
 
-            // Return 200 OK with JSON array
-            ctx.json(contacts);
             ctx.status(200);
+            if (acceptsNdjson(ctx)) {
+                ctx.contentType(NDJSON);
+                writeNdjson(ctx, contacts);
+            } else if (acceptsCbor(ctx)) {
+                // one CBOR array, encoded element by element like the JSON stream
+                ctx.contentType(CBOR);
+                cbor.writeArray(contacts, ctx.outputStream());
+            } else {
+                // Javalin writes the array element by element as the stream is consumed
+                ctx.writeJsonStream(contacts);
+            }
 
         } catch (Exception e) {
+            if (ctx.res().isCommitted()) {
+                // part of the body is already sent - all we can do is cut the response short
+                System.err.println("Streaming contacts failed mid-response: " + e.getMessage());
+                return;
+            }
             // Return 500 Internal Server Error
             ctx.status(500);
             ctx.json(new ErrorResponse(" Failed to fetch contacts: " + e.getMessage()));
@@ -99,6 +197,159 @@ public class ContactController {
 
     }
 
+    /**
+     * GET /api/contacts?limit=50&cursor=...
+     * Returns one page of contacts ordered by id
+     * <p>
+     * Response: {"items":[...],"nextCursor":"MTIzOg","hasMore":true}
+     * Pass nextCursor back as cursor to get the following page
+     */
+
+    private void getContactsPage(Context ctx) {
+        try {
+            if (isCollectionNotModified(ctx)) {
+                return;
+            }
+            complete(ctx, contactService.getContactsPageAsync(ctx.queryParam("cursor"), pageLimit(ctx)), page -> {
+                respond(ctx, page);
+                ctx.status(200);
+            }, " Failed to fetch contacts");
+        } catch (IllegalArgumentException e) {
+            // also covers a non-numeric limit
+            ctx.status(400);
+            ctx.json(new ErrorResponse("Invalid limit or cursor"));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse(" Failed to fetch contacts: " + e.getMessage()));
+        }
+    }
+
+    private static boolean isPageRequest(Context ctx) {
+        return ctx.queryParam("limit") != null || ctx.queryParam("cursor") != null;
+    }
+
+    private static int pageLimit(Context ctx) {
+        String limit = ctx.queryParam("limit");
+        return limit == null ? ContactService.DEFAULT_PAGE_SIZE : Integer.parseInt(limit);
+    }
+
+    /**
+     * Sets the ETag header and answers If-None-Match
+     * <p>
+     * Interview Point: a poll that finds nothing changed gets an empty 304
+     * instead of the full payload. "Cache-Control: no-cache" lets clients keep
+     * the response but makes them revalidate it on every use.
+     *
+     * @return true if the client's copy is current; a 304 has been set and the handler should stop
+     */
+    private static boolean isNotModified(Context ctx, String etag) {
+        ctx.header("ETag", etag);
+        ctx.header("Cache-Control", "no-cache");
+
+        String ifNoneMatch = ctx.header("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison: W/"x" matches "x"
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                ctx.status(304);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * isNotModified for list responses, unless etag.collection=false
+     * <p>
+     * Single-writer assumption: the collection version only counts writes made
+     * through this process. With several API servers on one database a write on
+     * another server does not change it, and a client could get 304 for a list
+     * that has changed - so such deployments set etag.collection=false, and list
+     * responses are always sent in full. Single contacts are unaffected: their
+     * ETag is the row version, stored in the database.
+     */
+    private boolean isCollectionNotModified(Context ctx) {
+        return collectionEtags && isNotModified(ctx, collectionEtag(ctx));
+    }
+
+    /**
+     * ETag of a list response: the in-process collection version, plus the
+     * representation, since JSON, NDJSON and CBOR bodies of the same URL differ
+     */
+    private String collectionEtag(Context ctx) {
+        return "\"" + contactService.getCollectionVersion() + representation(ctx) + "\"";
+    }
+
+    /**
+     * ETag of a single contact: its row version (updated_at on databases without the version column)
+     */
+    private static String contactEtag(Context ctx, Contact contact) {
+        long version = contact.getVersion() != 0 ? contact.getVersion()
+                : contact.getUpdatedAt() != null ? contact.getUpdatedAt().getTime() : 0;
+        return "\"" + contact.getId() + "-" + version + representation(ctx) + "\"";
+    }
+
+    /**
+     * ETag suffix for the body format chosen by the Accept header
+     */
+    private static String representation(Context ctx) {
+        ctx.header("Vary", "Accept");
+        return acceptsNdjson(ctx) ? "-nd" : acceptsCbor(ctx) ? "-cbor" : "";
+    }
+
+    private static boolean acceptsCbor(Context ctx) {
+        String accept = ctx.header("Accept");
+        return accept != null && accept.contains(CBOR);
+    }
+
+    /**
+     * Sends the body as CBOR if the client asked for it, otherwise as JSON (the default)
+     */
+    private void respond(Context ctx, Object body) {
+        if (acceptsCbor(ctx)) {
+            ctx.contentType(CBOR);
+            ctx.result(cbor.toBytes(body));
+        } else {
+            ctx.json(body);
+        }
+    }
+
+    /**
+     * Reads the request body as CBOR if it was sent with Content-Type: application/cbor, otherwise as JSON
+     */
+    private <T> T readBody(Context ctx, Class<T> type) {
+        String contentType = ctx.contentType();
+        if (contentType != null && contentType.startsWith(CBOR)) {
+            return cbor.read(ctx.bodyInputStream(), type);
+        }
+        return ctx.bodyAsClass(type);
+    }
+
+    private static boolean acceptsNdjson(Context ctx) {
+        String accept = ctx.header("Accept");
+        return accept != null && accept.contains(NDJSON);
+    }
+
+    /**
+     * Writes one JSON document per line, flushing as the output buffer fills
+     */
+    private static void writeNdjson(Context ctx, Stream<?> items) throws IOException {
+        JsonMapper mapper = JsonMapperKt.jsonMapper(ctx);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8));
+        Iterator<?> it = items.iterator();
+        while (it.hasNext()) {
+            writer.write(mapper.toJsonString(it.next(), Object.class));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
     /**
      * GET /api/contacts/{id}
      * Returns single contact by ID
@@ -112,18 +363,15 @@ public class ContactController {
             // Extract ID from URL path parameter
             int id = Integer.parseInt(ctx.pathParam("id"));
 
-            Contact contact = contactService.getContactById(id);
-
-            if (contact != null) {
-                // Return 200 OK with contact JSON
-                ctx.json(contact);
-                ctx.status(200);
-            } else {
-                //return 404
-                ctx.status(404);
-                ctx.json(new ErrorResponse("Contact not found with ID: " + id));
-
-            }
+            complete(ctx, contactService.getContactByIdAsync(id), contact -> {
+                if (contact != null) {
+                    sendContact(ctx, id, contact);
+                } else {
+                    //return 404
+                    ctx.status(404);
+                    ctx.json(new ErrorResponse("Contact not found with ID: " + id));
+                }
+            }, "Failed to fetch contact");
         } catch (NumberFormatException e) {
             //return 404
             ctx.status(400);
@@ -132,6 +380,105 @@ public class ContactController {
         }
     }
 
+    private void sendContact(Context ctx, int id, Contact contact) {
+        String etag = contactEtag(ctx, contact);
+        if (isNotModified(ctx, etag)) {
+            return;
+        }
+
+        if (acceptsCbor(ctx)) {
+            respond(ctx, contact);
+            ctx.status(200);
+            return;
+        }
+
+        byte[] json = jsonCache.get(id, etag);
+        if (json == null) {
+            json = JsonMapperKt.jsonMapper(ctx).toJsonString(contact, Contact.class)
+                    .getBytes(StandardCharsets.UTF_8);
+            jsonCache.put(id, etag, json);
+        }
+        // Return 200 OK with contact JSON
+        ctx.contentType(ContentType.APPLICATION_JSON);
+        ctx.result(json);
+        ctx.status(200);
+    }
+
+    /**
+     * Finishes the request when future completes, without holding the request thread meanwhile
+     * <p>
+     * Interview Point: ctx.future() hands the response over to Javalin, which writes it
+     * once the future is done - the handler thread goes back to serve other requests
+     * while the query runs on the DAO executor. If the client goes away (or the servlet
+     * async timeout fires) the future is cancelled, which drops the query if it has not
+     * started yet.
+     *
+     * @param onResult writes the response for a successful result (runs on a DAO thread)
+     * @param failure  error message prefix for a 500
+     */
+    private <T> void complete(Context ctx, CompletableFuture<T> future, Consumer<T> onResult, String failure) {
+        ctx.future(() -> {
+            // the supplier runs after Javalin has started async processing
+            if (ctx.req().isAsyncStarted()) {
+                ctx.req().getAsyncContext().addListener(new CancelOnDisconnect(future));
+            }
+            return future.handle((result, error) -> {
+                if (error == null) {
+                    onResult.accept(result);
+                } else {
+                    failed(ctx, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error, failure);
+                }
+                return null;
+            });
+        });
+    }
+
+    private static void failed(Context ctx, Throwable cause, String failure) {
+        if (cause instanceof RejectedExecutionException) {
+            // DAO executor queue is full - same answer as the load shedder gives
+            ctx.header("Retry-After", "1");
+            ctx.status(503);
+            ctx.json(new ErrorResponse("Server is overloaded, retry later"));
+        } else if (cause instanceof TimeoutException) {
+            ctx.status(504);
+            ctx.json(new ErrorResponse(failure + " : database did not answer in time"));
+        } else {
+            ctx.status(500);
+            ctx.json(new ErrorResponse(failure + " : " + cause.getMessage()));
+        }
+    }
+
+    /**
+     * Cancels the pending query when the request ends before it does
+     * (client disconnected, or async timeout)
+     */
+    private static final class CancelOnDisconnect implements AsyncListener {
+        private final CompletableFuture<?> future;
+
+        private CancelOnDisconnect(CompletableFuture<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            future.cancel(true);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            future.cancel(true);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+
     /**
      * POST /api/contacts
      * Creates new contact from JSON request body
@@ -144,20 +491,21 @@ public class ContactController {
      * "email": "new@example.com",
      * "address": "Mumbai"
      * }
+     * Response: 201 with the created contact, including its generated id
      */
 
     private void createContact(Context ctx) {
 
         try {
             //parse json requst body to contact object
-            Contact contact = ctx.bodyAsClass(Contact.class);
+            Contact contact = readBody(ctx, Contact.class);
 
             //validate and add through service
-            boolean success = contactService.addContact(contact);
+            Contact created = contactService.addContact(contact);
 
-            if (success) {
+            if (created != null) {
                 ctx.status(201);
-                ctx.json(new SuccessResponse("Contact created successfully "));
+                respond(ctx, created);
 
             } else {
                 // return 400 bad requst
@@ -176,26 +524,41 @@ public class ContactController {
      * <p>
      * Example: PUT /api/contacts/1
      * Request body: {"id":1,"firstName":"Updated",...}
+     * Response: 200 with the updated contact as stored,
+     * 404 unknown id, 400 invalid data, 409 phone number held by another contact
      */
 
     private void updateContact(Context ctx) {
         try {
             int id = Integer.parseInt(ctx.pathParam("id"));
-            Contact contact = ctx.bodyAsClass(Contact.class);
+            Contact contact = readBody(ctx, Contact.class);
 
             // Ensure ID in URL matches ID in body
             contact.setId(id);
 
-            boolean success = contactService.updateContact(contact);
-
-            if (success) {
-                // Return 200 OK
-                ctx.status(200);
-                ctx.json(new SuccessResponse("Contact updated successfully"));
-            } else {
-                // Return 404 Not Found or 400 Bad Request
-                ctx.status(404);
-                ctx.json(new ErrorResponse("Contact not found or validation failed"));
+            UpdateResult result = contactService.updateContact(contact);
+
+            switch (result.getStatus()) {
+                case UPDATED -> {
+                    // the new version would miss anyway; drop the old bytes now
+                    jsonCache.invalidate(id);
+                    // Return 200 OK
+                    ctx.status(200);
+                    respond(ctx, result.getContact());
+                }
+                case NOT_FOUND -> {
+                    ctx.status(404);
+                    ctx.json(new ErrorResponse("Contact not found"));
+                }
+                case DUPLICATE_PHONE -> {
+                    // 409 Conflict - the number belongs to another contact
+                    ctx.status(409);
+                    ctx.json(new ErrorResponse("Phone number already exists"));
+                }
+                default -> {
+                    ctx.status(400);
+                    ctx.json(new ErrorResponse("Validation failed"));
+                }
             }
 
         } catch (NumberFormatException e) {
@@ -212,10 +575,11 @@ public class ContactController {
      try{
          int id = Integer.parseInt(ctx.pathParam("id"));
 
-         boolean success = contactService.deleteContact(id);
+         Contact deleted = contactService.deleteContact(id);
 
 
-            if (success) {
+            if (deleted != null) {
+                jsonCache.invalidate(id);
                 // Return 200 OK
                 ctx.status(200);
                 ctx.json(new SuccessResponse("Contact deleted successfully"));
@@ -238,7 +602,10 @@ public class ContactController {
      * Searches contacts by name
      *
      * Example: GET /api/contacts/search?name=Amit
-     * Returns: Array of matching contacts
+     * Returns: Array of the closest matches, at most search.limit (default 100)
+     *
+     * With ?limit=&cursor= returns one page ordered by first name, for reading every match:
+     * {"items":[...],"nextCursor":"...","hasMore":true}
      */
 
      private void searchContacts(Context ctx){
@@ -252,11 +619,26 @@ public class ContactController {
                  return;
              }
 
-             List<Contact> results = contactService.searchContactByName(name);
+             if (isCollectionNotModified(ctx)) {
+                 return;
+             }
 
-             //return 200 ok with results
-             ctx.json(results);
-             ctx.status(200);
+             if (isPageRequest(ctx)) {
+                 complete(ctx, contactService.searchContactsPageAsync(name, ctx.queryParam("cursor"), pageLimit(ctx)), page -> {
+                     respond(ctx, page);
+                     ctx.status(200);
+                 }, "Search Failed");
+                 return;
+             }
+
+             complete(ctx, contactService.searchContactByNameAsync(name), results -> {
+                 //return 200 ok with results
+                 respond(ctx, results);
+                 ctx.status(200);
+             }, "Search Failed");
+         }catch (IllegalArgumentException e){
+             ctx.status(400);
+             ctx.json(new ErrorResponse("Invalid limit or cursor"));
          }catch (Exception e){
              ctx.status(500);
              ctx.json(new ErrorResponse("Search Failed : " + e.getMessage()));
@@ -264,6 +646,34 @@ public class ContactController {
      }
 
 
+    /**
+     * GET /api/contacts/autocomplete?q=am&limit=10
+     * Returns contacts whose name starts with q, from the in-memory prefix index
+     *
+     * Example: GET /api/contacts/autocomplete?q=pri
+     * Returns: [{"id":2,"firstName":"Priya","lastName":"Verma"}]
+     */
+
+    private void autocomplete(Context ctx) {
+        try {
+            String prefix = ctx.queryParam("q");
+            String limitParam = ctx.queryParam("limit");
+            int limit = limitParam == null ? 10 : Math.min(Integer.parseInt(limitParam), 100);
+
+            List<ContactSuggestion> suggestions = contactService.autocomplete(prefix, limit);
+
+            respond(ctx, suggestions);
+            ctx.status(200);
+        } catch (NumberFormatException e) {
+            ctx.status(400);
+            ctx.json(new ErrorResponse("Invalid limit"));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse("Autocomplete failed : " + e.getMessage()));
+        }
+    }
+
+
     /**
      * GET /api/contacts/count
      * Returns total number of contacts
@@ -285,12 +695,306 @@ public class ContactController {
         }
     }
 
+    /**
+     * GET /api/contacts/changes?since=xyz&limit=500
+     * Delta sync: returns only what changed since the client's last pull
+     * <p>
+     * First call without since returns every contact in pages; afterwards the client
+     * sends back the "since" value of the previous response. Deleted contacts come
+     * back as tombstones ({"id":7,"deleted":true,...}).
+     * <p>
+     * Response: {"changes":[{"id":1,"version":731,"deleted":false,"contact":{...}},...],
+     *            "since":"NDI6NzMx","hasMore":false}
+     */
+
+    private void getChanges(Context ctx) {
+        try {
+            complete(ctx, contactService.getChangesSinceAsync(ctx.queryParam("since"), pageLimit(ctx)), page -> {
+                respond(ctx, page);
+                ctx.status(200);
+            }, "Failed to fetch changes");
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException from limit
+            ctx.status(400);
+            ctx.json(new ErrorResponse("Invalid limit or since"));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse("Failed to fetch changes : " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/contacts/import
+     * Imports contacts from a CSV request body using PostgreSQL COPY
+     * The body is streamed straight into the database, never buffered in memory
+     * <p>
+     * Example: curl -X POST --data-binary @contacts.csv http://localhost:7000/api/contacts/import
+     * Response: {"rowsRead":1000000,"rowsInserted":999990,"rowsSkipped":5,"rowsRejected":5,...}
+     */
+
+    private void importContacts(Context ctx) {
+        try (Reader reader = new InputStreamReader(ctx.req().getInputStream(), StandardCharsets.UTF_8)) {
+            ImportResult result = contactService.importContactsFromCsv(reader);
+
+            respond(ctx, result);
+            ctx.status(200);
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse("Import failed : " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/contacts/upsert?key=email
+     * Inserts the contact, or updates the one with the same email (key=email, default)
+     * or phone number (key=phone) - one call instead of GET + POST/PUT
+     * <p>
+     * Response: 201 if inserted, 200 if updated
+     * {"contact":{"id":7,...},"inserted":true,"success":true}
+     */
+
+    private void upsertContact(Context ctx) {
+        try {
+            ContactDAO.UpsertKey key = upsertKey(ctx);
+            Contact contact = readBody(ctx, Contact.class);
+
+            UpsertResult result = contactService.upsertContact(contact, key);
+
+            if (result.isSuccess()) {
+                ctx.status(result.isInserted() ? 201 : 200);
+                respond(ctx, result);
+            } else {
+                ctx.status(400);
+                ctx.json(new ErrorResponse("Upsert failed : " + result.getError()));
+            }
+        } catch (IllegalArgumentException e) {
+            ctx.status(400);
+            ctx.json(new ErrorResponse("Invalid key, use email or phone"));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse("Upsert failed : " + e.getMessage()));
+        }
+    }
+
+    /**
+     * POST /api/contacts/upsert/batch?key=email
+     * Upserts a JSON array of contacts in one transaction
+     * <p>
+     * Response: one result per input element, in order
+     * [{"contact":{...},"inserted":true,"success":true},{"error":"Validation failed","success":false},...]
+     */
+
+    private void upsertContacts(Context ctx) {
+        try {
+            ContactDAO.UpsertKey key = upsertKey(ctx);
+            Contact[] contacts = readBody(ctx, Contact[].class);
+
+            List<UpsertResult> results = contactService.upsertContacts(Arrays.asList(contacts), key);
+
+            respond(ctx, results);
+            ctx.status(200);
+        } catch (IllegalArgumentException e) {
+            ctx.status(400);
+            ctx.json(new ErrorResponse("Invalid key, use email or phone"));
+        } catch (Exception e) {
+            ctx.status(500);
+            ctx.json(new ErrorResponse("Batch upsert failed : " + e.getMessage()));
+        }
+    }
+
+    private static ContactDAO.UpsertKey upsertKey(Context ctx) {
+        String key = ctx.queryParam("key");
+        return key == null ? ContactDAO.UpsertKey.EMAIL : ContactDAO.UpsertKey.valueOf(key.trim().toUpperCase());
+    }
+
+    /**
+     * POST /api/contacts/bulk
+     * Creates one contact per line of a newline-delimited JSON body
+     * <p>
+     * Request:  {"firstName":"Amit","phone":"9876543210",...}\n{"firstName":"Riya",...}\n...
+     * Response (NDJSON, one line per input line):
+     * {"line":1,"id":41,"status":"created","error":null,"success":true}
+     * {"line":2,"id":null,"status":"failed","error":"Phone number already exists: ...","success":false}
+     */
+
+    private void bulkCreate(Context ctx) {
+        streamBulk(ctx, (line, mapper) -> mapper.fromJsonString(line, Contact.class),
+                contactService::addContacts, "created");
+    }
+
+    /**
+     * PUT /api/contacts/bulk
+     * Updates one contact per line; each line must carry the contact id
+     */
+
+    private void bulkUpdate(Context ctx) {
+        streamBulk(ctx, (line, mapper) -> mapper.fromJsonString(line, Contact.class),
+                contactService::updateContacts, "updated");
+    }
+
+    /**
+     * DELETE /api/contacts/bulk
+     * Deletes one contact per line; a line is either a bare id (42) or an object ({"id":42})
+     */
+
+    private void bulkDelete(Context ctx) {
+        streamBulk(ctx, ContactController::parseId, contactService::deleteContacts, "deleted");
+    }
+
+    private static Integer parseId(String line, JsonMapper mapper) {
+        if (Character.isDigit(line.charAt(0))) {
+            return Integer.valueOf(line);
+        }
+        Contact contact = mapper.fromJsonString(line, Contact.class);
+        return contact == null ? null : contact.getId();
+    }
+
+    /**
+     * Parses one line of a bulk upload
+     */
+    @FunctionalInterface
+    private interface LineParser<T> {
+        T parse(String line, JsonMapper mapper) throws Exception;
+    }
+
+    /**
+     * Reads an NDJSON body line by line, writes it bulkChunkSize lines per batch
+     * and streams back one result per line in input order
+     * <p>
+     * Interview Point: only one chunk is held in memory at a time, and results
+     * go out as each chunk commits, so a 1M-line upload needs neither a buffered
+     * request body nor a buffered response.
+     */
+    private <T> void streamBulk(Context ctx, LineParser<T> parser,
+                                Function<List<T>, BatchResult> writer, String successStatus) {
+        JsonMapper mapper = JsonMapperKt.jsonMapper(ctx);
+        ctx.status(200);
+        ctx.contentType(NDJSON);
+
+        long start = System.nanoTime();
+        long lineNumber = 0;
+        long succeeded = 0;
+        long failed = 0;
+
+        try (BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(ctx.req().getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(ctx.outputStream(), StandardCharsets.UTF_8))) {
+
+            // one entry per non-blank line of the current chunk; parsed is null when the line was malformed
+            List<Long> lineNumbers = new ArrayList<>(bulkChunkSize);
+            List<T> parsed = new ArrayList<>(bulkChunkSize);
+            List<String> parseErrors = new ArrayList<>(bulkChunkSize);
+
+            String line;
+            boolean endOfInput = false;
+            while (!endOfInput) {
+                line = reader.readLine();
+                endOfInput = line == null;
+
+                if (!endOfInput) {
+                    lineNumber++;
+                    line = line.trim();
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    T row = null;
+                    String error = null;
+                    try {
+                        row = parser.parse(line, mapper);
+                        if (row == null) {
+                            error = "Empty record";
+                        }
+                    } catch (Exception e) {
+                        error = "Malformed line: " + e.getMessage();
+                    }
+                    lineNumbers.add(lineNumber);
+                    parsed.add(row);
+                    parseErrors.add(error);
+                }
+
+                if (lineNumbers.size() >= bulkChunkSize || (endOfInput && !lineNumbers.isEmpty())) {
+                    List<T> rows = new ArrayList<>(parsed.size());
+                    for (T row : parsed) {
+                        if (row != null) {
+                            rows.add(row);
+                        }
+                    }
+                    BatchResult result = rows.isEmpty() ? new BatchResult(0) : writeChunk(writer, rows);
+
+                    int rowIndex = 0;
+                    for (int i = 0; i < lineNumbers.size(); i++) {
+                        BulkLineResult lineResult;
+                        if (parsed.get(i) == null) {
+                            lineResult = BulkLineResult.failed(lineNumbers.get(i), parseErrors.get(i));
+                        } else {
+                            String failure = result.getFailures().get(rowIndex);
+                            lineResult = failure != null
+                                    ? BulkLineResult.failed(lineNumbers.get(i), failure)
+                                    : BulkLineResult.succeeded(lineNumbers.get(i),
+                                            result.getGeneratedIds().get(rowIndex), successStatus);
+                            rowIndex++;
+                        }
+                        if (lineResult.isSuccess()) {
+                            succeeded++;
+                        } else {
+                            failed++;
+                        }
+                        out.write(encodeLine(mapper, lineResult));
+                        out.write('\n');
+                    }
+                    out.flush();
+
+                    lineNumbers.clear();
+                    parsed.clear();
+                    parseErrors.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the status line has already been sent; the client sees a truncated stream.
+            // caught here so Javalin's error handler does not append a non-NDJSON body
+            System.err.println("Bulk request aborted at line " + lineNumber + ": " + e.getMessage());
+        }
+
+        System.out.printf("bulk %s: %d lines, %d ok, %d failed in %d ms%n", successStatus,
+                lineNumber, succeeded, failed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes one chunk; if the writer throws, every row of the chunk is reported
+     * as failed and the upload continues with the next chunk
+     */
+    private static <T> BatchResult writeChunk(Function<List<T>, BatchResult> writer, List<T> rows) {
+        try {
+            return writer.apply(rows);
+        } catch (RuntimeException e) {
+            System.err.println("Bulk chunk of " + rows.size() + " rows failed: " + e.getMessage());
+            BatchResult result = new BatchResult(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                result.recordFailure(i, "Batch failed: " + e.getMessage());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One NDJSON result line; if the mapper fails, a fixed failure line for the same input line
+     */
+    private static String encodeLine(JsonMapper mapper, BulkLineResult lineResult) {
+        try {
+            return mapper.toJsonString(lineResult, BulkLineResult.class);
+        } catch (RuntimeException e) {
+            System.err.println("Encoding bulk result for line " + lineResult.getLine() + " failed: " + e.getMessage());
+            return "{\"line\":" + lineResult.getLine()
+                    + ",\"id\":null,\"status\":\"failed\",\"error\":\"Result could not be encoded\",\"success\":false}";
+        }
+    }
+
         // ========== Response Classes (for consistent JSON format) ==========
     /**
      * Success response wrapper
      */
 
-private static class SuccessResponse{
+private static class SuccessResponse implements JsonWritable {
     private final String message;
     private final boolean success = true;
 
@@ -305,11 +1009,19 @@ private static class SuccessResponse{
         public boolean isSuccess(){
             return success;
         }
+
+        @Override
+        public void writeJson(JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("message", message);
+            gen.writeBooleanField("success", success);
+            gen.writeEndObject();
+        }
     }
 
     //error respone wrapper
 
-    private static class ErrorResponse{
+    private static class ErrorResponse implements JsonWritable {
     private final String error;
     private final boolean success = false;
 
@@ -320,12 +1032,67 @@ private static class SuccessResponse{
         public String getError() { return error;}
         public boolean isSuccess(){ return success;}
 
+        @Override
+        public void writeJson(JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeStringField("error", error);
+            gen.writeBooleanField("success", success);
+            gen.writeEndObject();
+        }
+
+    }
+
+    /**
+     * Result of one line of a bulk request
+     */
+    private static class BulkLineResult implements JsonWritable {
+        private final long line;
+        private final Integer id;
+        private final String status;
+        private final String error;
+
+        private BulkLineResult(long line, Integer id, String status, String error) {
+            this.line = line;
+            this.id = id;
+            this.status = status;
+            this.error = error;
+        }
+
+        static BulkLineResult succeeded(long line, Integer id, String status) {
+            return new BulkLineResult(line, id, status, null);
+        }
+
+        static BulkLineResult failed(long line, String error) {
+            return new BulkLineResult(line, null, "failed", error);
+        }
+
+        public long getLine() { return line; }
+        public Integer getId() { return id; }
+        public String getStatus() { return status; }
+        public String getError() { return error; }
+        public boolean isSuccess() { return error == null; }
+
+        @Override
+        public void writeJson(JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("line", line);
+            gen.writeFieldName("id");
+            if (id == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(id);
+            }
+            gen.writeStringField("status", status);
+            gen.writeStringField("error", error);
+            gen.writeBooleanField("success", isSuccess());
+            gen.writeEndObject();
+        }
     }
 
      /**
      * Count response wrapper
      */
-    private static class CountResponse {
+    private static class CountResponse implements JsonWritable {
         private final int count;
 
         public CountResponse(int count) {
@@ -333,6 +1100,13 @@ private static class SuccessResponse{
         }
 
         public int getCount() { return count; }
+
+        @Override
+        public void writeJson(JsonGenerator gen) throws IOException {
+            gen.writeStartObject();
+            gen.writeNumberField("count", count);
+            gen.writeEndObject();
+        }
     }
 
 
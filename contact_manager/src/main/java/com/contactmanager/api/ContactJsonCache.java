@@ -0,0 +1,66 @@
+package com.contactmanager.api;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.util.BoundedCache;
+import com.contactmanager.util.DatabaseConnection;
+
+/**
+ * Cache of contacts already encoded as JSON bytes
+ * <p>
+ * Interview Point: serializing an object walks its fields through the JSON
+ * mapper on every request. Keeping the encoded bytes turns a hot read into a
+ * byte copy. Each entry remembers the contact's ETag; a lookup with a different
+ * tag is a miss, so a row changed anywhere (bulk, upsert, another endpoint) can
+ * never be served from stale bytes even if nobody invalidated it.
+ */
+public class ContactJsonCache {
+
+    private final BoundedCache<Integer, Entry> cache;
+
+    public ContactJsonCache(long maxWeightBytes) {
+        this.cache = new BoundedCache<>(maxWeightBytes, 0, entry -> entry.json.length + 64L);
+    }
+
+    /**
+     * Creates the cache from json.cache.* settings in database.properties
+     */
+    public static ContactJsonCache fromProperties() {
+        return new ContactJsonCache(DatabaseConnection.getLongProperty("json.cache.maxWeightBytes", 16L * 1024 * 1024));
+    }
+
+    /**
+     * @param id  contact id
+     * @param tag ETag of the contact as currently stored
+     * @return encoded JSON, or null if absent or encoded from another version
+     */
+    public byte[] get(int id, String tag) {
+        Entry entry = cache.get(id);
+        return entry != null && entry.tag.equals(tag) ? entry.json : null;
+    }
+
+    public void put(int id, String tag, byte[] json) {
+        cache.put(id, new Entry(tag, json));
+    }
+
+    public void invalidate(int id) {
+        cache.invalidate(id);
+    }
+
+    public void registerMetrics(MetricsRegistry registry) {
+        cache.registerMetrics(registry, "contact_json");
+    }
+
+    public BoundedCache.CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private static final class Entry {
+        private final String tag;
+        private final byte[] json;
+
+        private Entry(String tag, byte[] json) {
+            this.tag = tag;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package com.contactmanager.api;
+
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.ContactChangePage;
+import com.contactmanager.model.ContactPage;
+import com.contactmanager.model.ContactSuggestion;
+import com.contactmanager.model.UpsertResult;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written JSON encoding and decoding of Contact and the API models
+ * <p>
+ * Interview Point: the reflective mapper discovers getters, setters and
+ * annotations per class and goes through generic serializers for every field.
+ * Here each field is a direct getter call written straight to the token stream,
+ * and field names are pre-encoded once (SerializedString), so encoding a contact
+ * allocates little beyond the output bytes.
+ * <p>
+ * The output is byte-for-byte what Jackson databind produced for these classes:
+ * same field names and order, nulls included, timestamps as epoch milliseconds.
+ */
+final class ContactJsonCodec {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString PHONE = new SerializedString("phone");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializedString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializedString VERSION = new SerializedString("version");
+    private static final SerializedString ITEMS = new SerializedString("items");
+    private static final SerializedString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializedString HAS_MORE = new SerializedString("hasMore");
+    private static final SerializedString DELETED = new SerializedString("deleted");
+    private static final SerializedString CONTACT = new SerializedString("contact");
+    private static final SerializedString CHANGES = new SerializedString("changes");
+    private static final SerializedString SINCE = new SerializedString("since");
+    private static final SerializedString INSERTED = new SerializedString("inserted");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString SUCCESS = new SerializedString("success");
+
+    private ContactJsonCodec() {
+    }
+
+    // ========== Encoding ==========
+
+    static void writeContact(JsonGenerator gen, Contact contact) throws IOException {
+        if (contact == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(contact.getId());
+        gen.writeFieldName(FIRST_NAME);
+        gen.writeString(contact.getFirstName());
+        gen.writeFieldName(LAST_NAME);
+        gen.writeString(contact.getLastName());
+        gen.writeFieldName(PHONE);
+        gen.writeString(contact.getPhone());
+        gen.writeFieldName(EMAIL);
+        gen.writeString(contact.getEmail());
+        gen.writeFieldName(ADDRESS);
+        gen.writeString(contact.getAddress());
+        gen.writeFieldName(CREATED_AT);
+        writeTimestamp(gen, contact.getCreatedAt());
+        gen.writeFieldName(UPDATED_AT);
+        writeTimestamp(gen, contact.getUpdatedAt());
+        gen.writeFieldName(VERSION);
+        gen.writeNumber(contact.getVersion());
+        gen.writeEndObject();
+    }
+
+    static void writeSuggestion(JsonGenerator gen, ContactSuggestion suggestion) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(suggestion.getId());
+        gen.writeFieldName(FIRST_NAME);
+        gen.writeString(suggestion.getFirstName());
+        gen.writeFieldName(LAST_NAME);
+        gen.writeString(suggestion.getLastName());
+        gen.writeEndObject();
+    }
+
+    static void writePage(JsonGenerator gen, ContactPage page) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ITEMS);
+        gen.writeStartArray();
+        for (Contact contact : page.getItems()) {
+            writeContact(gen, contact);
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(NEXT_CURSOR);
+        gen.writeString(page.getNextCursor());
+        gen.writeFieldName(HAS_MORE);
+        gen.writeBoolean(page.isHasMore());
+        gen.writeEndObject();
+    }
+
+    static void writeChange(JsonGenerator gen, ContactChange change) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(change.getId());
+        gen.writeFieldName(VERSION);
+        gen.writeNumber(change.getVersion());
+        gen.writeFieldName(DELETED);
+        gen.writeBoolean(change.isDeleted());
+        gen.writeFieldName(CONTACT);
+        writeContact(gen, change.getContact());
+        gen.writeEndObject();
+    }
+
+    static void writeChangePage(JsonGenerator gen, ContactChangePage page) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(CHANGES);
+        gen.writeStartArray();
+        for (ContactChange change : page.getChanges()) {
+            writeChange(gen, change);
+        }
+        gen.writeEndArray();
+        gen.writeFieldName(SINCE);
+        gen.writeString(page.getSince());
+        gen.writeFieldName(HAS_MORE);
+        gen.writeBoolean(page.isHasMore());
+        gen.writeEndObject();
+    }
+
+    static void writeUpsertResult(JsonGenerator gen, UpsertResult result) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(CONTACT);
+        writeContact(gen, result.getContact());
+        gen.writeFieldName(INSERTED);
+        gen.writeBoolean(result.isInserted());
+        gen.writeFieldName(ERROR);
+        gen.writeString(result.getError());
+        gen.writeFieldName(SUCCESS);
+        gen.writeBoolean(result.isSuccess());
+        gen.writeEndObject();
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, Timestamp timestamp) throws IOException {
+        if (timestamp == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(timestamp.getTime());
+        }
+    }
+
+    // ========== Decoding ==========
+
+    /**
+     * Reads one contact object; the parser may be positioned before or on its START_OBJECT
+     * Unknown fields are rejected, as Jackson databind did
+     */
+    static Contact readContact(JsonParser parser) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a contact object but found " + token);
+        }
+
+        Contact contact = new Contact();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "id":
+                    contact.setId(readInt(parser));
+                    break;
+                case "firstName":
+                    contact.setFirstName(readText(parser));
+                    break;
+                case "lastName":
+                    contact.setLastName(readText(parser));
+                    break;
+                case "phone":
+                    contact.setPhone(readText(parser));
+                    break;
+                case "email":
+                    contact.setEmail(readText(parser));
+                    break;
+                case "address":
+                    contact.setAddress(readText(parser));
+                    break;
+                case "createdAt":
+                    contact.setCreatedAt(readTimestamp(parser));
+                    break;
+                case "updatedAt":
+                case "updateAt":
+                    contact.setUpdateAt(readTimestamp(parser));
+                    break;
+                case "version":
+                    contact.setVersion(readLong(parser));
+                    break;
+                default:
+                    throw new JsonParseException(parser, "Unrecognized field \"" + field + "\" in contact");
+            }
+        }
+        return contact;
+    }
+
+    /**
+     * Reads a JSON array of contacts
+     */
+    static List<Contact> readContactList(JsonParser parser) throws IOException {
+        JsonToken token = parser.hasCurrentToken() ? parser.currentToken() : parser.nextToken();
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array of contacts but found " + token);
+        }
+        List<Contact> contacts = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            contacts.add(readContact(parser));
+        }
+        return contacts;
+    }
+
+    private static String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string but found " + token);
+        }
+        return parser.getText();
+    }
+
+    private static int readInt(JsonParser parser) throws IOException {
+        long value = readLong(parser);
+        // databind rejects these too; a silent wrap-around would address a different row
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new JsonParseException(parser, "Numeric value (" + value + ") out of range of int");
+        }
+        return (int) value;
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Expected a number but found \"" + parser.getText() + "\"");
+            }
+        }
+        throw new JsonParseException(parser, "Expected a number but found " + token);
+    }
+
+    /**
+     * Epoch milliseconds, or an ISO-8601 date/date-time string (UTC unless an offset is given)
+     */
+    private static Timestamp readTimestamp(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return new Timestamp(parser.getLongValue());
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(parser, "Expected a timestamp but found " + token);
+        }
+
+        String text = parser.getText().trim();
+        try {
+            return Timestamp.from(OffsetDateTime.parse(text).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // no offset - try the other forms
+        }
+        try {
+            return Timestamp.from(LocalDateTime.parse(text).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException ignored) {
+            // not a local date-time
+        }
+        try {
+            return Timestamp.from(LocalDate.parse(text).atStartOfDay().toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException ignored) {
+            // not a date
+        }
+        try {
+            // "2024-01-31 10:15:00" as printed by Timestamp.toString()
+            return Timestamp.valueOf(text);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(parser, "Cannot parse timestamp \"" + text + "\"");
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.contactmanager.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * A response object that writes its own JSON
+ * StreamingJsonMapper calls writeJson instead of inspecting the class by reflection
+ */
+interface JsonWritable {
+
+    void writeJson(JsonGenerator gen) throws IOException;
+}
@@ -0,0 +1,195 @@
+package com.contactmanager.api;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.util.DatabaseConnection;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+import io.javalin.http.ServiceUnavailableResponse;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit and adaptive load shedding for API requests
+ * <p>
+ * Interview Point: almost every request needs a database connection, so running
+ * more requests at once than the pool can serve only moves the queue from the
+ * HTTP layer into the pool, where it is invisible and unbounded. A semaphore
+ * sized from the pool admits a fixed number of requests; the rest wait briefly.
+ * <p>
+ * Shedding follows CoDel (controlled delay): a queue that drains is healthy,
+ * a queue whose wait stays above the target for a whole interval is a standing
+ * queue. Then requests that cannot start right away are rejected with
+ * 503 + Retry-After instead of waiting, which keeps latency low for the requests
+ * that are admitted and tells clients to back off.
+ */
+public class LoadShedder {
+
+    private static final String PERMIT = "loadShedder.permit";
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long targetQueueNanos;
+    private final long intervalNanos;
+    private final long maxQueueNanos;
+    private final String retryAfterSeconds;
+
+    // start of the current stretch of above-target waits, 0 = queue is draining
+    private final AtomicLong aboveTargetSince = new AtomicLong();
+    private volatile long sheddingUntil = System.nanoTime();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * @param limit           requests allowed to run at the same time
+     * @param targetQueueMs   acceptable time a request waits for a slot
+     * @param intervalMs      how long waits must stay above target before shedding starts
+     * @param maxQueueMs      longest any request waits before it is rejected
+     */
+    public LoadShedder(int limit, long targetQueueMs, long intervalMs, long maxQueueMs) {
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+        this.targetQueueNanos = TimeUnit.MILLISECONDS.toNanos(targetQueueMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.maxQueueNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueMs);
+        this.retryAfterSeconds = String.valueOf(Math.max(1, (intervalMs + 999) / 1000));
+    }
+
+    /**
+     * Creates the shedder from server.* settings in database.properties
+     * The default limit is server.concurrency.perConnection requests per pooled connection
+     */
+    public static LoadShedder fromProperties() {
+        int limit = DatabaseConnection.getIntProperty("server.concurrency.limit", 0);
+        if (limit <= 0) {
+            limit = DatabaseConnection.getIntProperty("db.pool.maxSize", 10)
+                    * DatabaseConnection.getIntProperty("server.concurrency.perConnection", 2);
+        }
+        return new LoadShedder(limit,
+                DatabaseConnection.getLongProperty("server.shed.targetQueueMs", 50),
+                DatabaseConnection.getLongProperty("server.shed.intervalMs", 500),
+                DatabaseConnection.getLongProperty("server.shed.maxQueueMs", 1000));
+    }
+
+    /**
+     * Guards every /api request; static files are not limited
+     */
+    public void register(Javalin app) {
+        app.before("/api/*", this::admit);
+        app.after("/api/*", this::release);
+    }
+
+    private void admit(Context ctx) {
+        long start = System.nanoTime();
+        if (permits.tryAcquire()) {
+            onAdmitted(ctx, start, 0);
+            return;
+        }
+        if (start - sheddingUntil < 0) {
+            throw reject(ctx);
+        }
+
+        waiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxQueueNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        long now = System.nanoTime();
+        recordQueueDelay(now, now - start);
+        if (!acquired) {
+            throw reject(ctx);
+        }
+        onAdmitted(ctx, now, now - start);
+    }
+
+    private void onAdmitted(Context ctx, long now, long queueDelay) {
+        if (queueDelay == 0) {
+            recordQueueDelay(now, 0);
+        }
+        ctx.attribute(PERMIT, Boolean.TRUE);
+        admitted.increment();
+    }
+
+    private void release(Context ctx) {
+        // after-handlers also run for rejected requests, which hold no permit
+        if (ctx.attribute(PERMIT) != null) {
+            ctx.attribute(PERMIT, null);
+            permits.release();
+        }
+    }
+
+    /**
+     * CoDel state: a wait below target means the queue drained; waits above
+     * target for a full interval start (or extend) a shedding period
+     */
+    private void recordQueueDelay(long now, long queueDelay) {
+        if (queueDelay < targetQueueNanos) {
+            aboveTargetSince.set(0);
+            return;
+        }
+        long since = aboveTargetSince.get();
+        if (since == 0) {
+            aboveTargetSince.compareAndSet(0, now);
+        } else if (now - since >= intervalNanos) {
+            sheddingUntil = now + intervalNanos;
+        }
+    }
+
+    /**
+     * Counts the rejection and sets Retry-After; the caller throws the returned 503
+     */
+    private ServiceUnavailableResponse reject(Context ctx) {
+        shed.increment();
+        ctx.header("Retry-After", retryAfterSeconds);
+        return new ServiceUnavailableResponse("Server is overloaded, retry later");
+    }
+
+    public void registerMetrics(MetricsRegistry registry) {
+        registry.gauge("http_concurrency_limit", "Requests allowed to run at the same time", this::getLimit);
+        registry.gauge("http_requests_in_flight", "Requests currently running", this::getInFlight);
+        registry.gauge("http_requests_waiting", "Requests waiting for a slot", this::getWaiting);
+        registry.gauge("http_load_shedding", "1 while requests are being shed", () -> isShedding() ? 1 : 0);
+        registry.functionCounter("http_requests_shed_total", "Requests rejected with 503", this::getShed);
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return limit - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getShed() {
+        return shed.sum();
+    }
+
+    public boolean isShedding() {
+        return System.nanoTime() - sheddingUntil < 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LoadShedder{limit=%d, inFlight=%d, waiting=%d, admitted=%d, shed=%d, shedding=%s}",
+                limit, getInFlight(), getWaiting(), getAdmitted(), getShed(), isShedding());
+    }
+}
@@ -0,0 +1,66 @@
+package com.contactmanager.api;
+
+import com.contactmanager.metrics.LatencyHistogram;
+import com.contactmanager.metrics.MetricsRegistry;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and response counts for every API route
+ * <p>
+ * Interview Point: metrics are labelled by the route pattern (/api/contacts/{id}),
+ * never by the actual path - one series per endpoint instead of one per contact id.
+ * The timer starts in a before-handler and stops in an after-handler; Javalin runs
+ * after-handlers only once an async (ctx.future) response is complete, so async
+ * routes are timed to the end as well.
+ * <p>
+ * Exported as http_request_duration_seconds{method,route} and
+ * http_responses_total{method,route,status}.
+ */
+public class RequestMetrics {
+
+    private static final String START = "requestMetrics.start";
+
+    private final MetricsRegistry registry;
+
+    // "GET /api/contacts/{id}" -> histogram, "GET /api/contacts/{id} 200" -> counter
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> responses = new ConcurrentHashMap<>();
+
+    public RequestMetrics(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times every /api request; register before the load shedder so rejected requests are counted too
+     */
+    public void register(Javalin app) {
+        app.before("/api/*", ctx -> ctx.attribute(START, System.nanoTime()));
+        app.after("/api/*", this::record);
+    }
+
+    private void record(Context ctx) {
+        Long start = ctx.attribute(START);
+        if (start == null) {
+            return;
+        }
+        String method = ctx.method().name();
+        String route = route(ctx);
+        String status = String.valueOf(ctx.statusCode());
+
+        latencies.computeIfAbsent(method + " " + route, key -> registry.histogram("http_request_duration_seconds",
+                "Time to handle API requests", "method", method, "route", route)).recordSince(start);
+        responses.computeIfAbsent(method + " " + route + " " + status, key -> registry.counter("http_responses_total",
+                "API responses by status", "method", method, "route", route, "status", status)).increment();
+    }
+
+    // requests that matched no route (Javalin reports a message instead of a path) are grouped together
+    private static String route(Context ctx) {
+        String route = ctx.endpointHandlerPath();
+        return route.startsWith("/") ? route : "unmatched";
+    }
+}
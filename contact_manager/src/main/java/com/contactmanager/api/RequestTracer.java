@@ -0,0 +1,83 @@
+package com.contactmanager.api;
+
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.util.DatabaseConnection;
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which API requests are traced and reports their RequestTrace
+ * <p>
+ * Interview Point: a traced response carries a Server-Timing header, which
+ * browser dev tools show next to the network timing, e.g.
+ * Server-Timing: svc;dur=6.10, dao;dur=5.80, conn;dur=0.20, sql;dur=4.90, map;dur=0.40, json;dur=0.30, total;dur=6.90
+ * Phases nest (svc contains dao, dao contains conn + sql + map), so they do not add up to total.
+ * <p>
+ * A request is traced when it is picked by trace.sampleRate, or when it sends
+ * "X-Trace: 1" and trace.allowHeader=true. With trace.log=true each traced request
+ * is also printed span by span. Untraced requests pay one ThreadLocal write here.
+ * Streamed bodies (GET /api/contacts without a limit) are committed before
+ * the trace ends, so they are logged but carry no header.
+ */
+public class RequestTracer {
+
+    private static final String TRACE = "requestTracer.trace";
+
+    private final double sampleRate;
+    private final boolean allowHeader;
+    private final boolean log;
+
+    public RequestTracer(double sampleRate, boolean allowHeader, boolean log) {
+        this.sampleRate = sampleRate;
+        this.allowHeader = allowHeader;
+        this.log = log;
+    }
+
+    /**
+     * Creates the tracer from trace.* settings in database.properties
+     */
+    public static RequestTracer fromProperties() {
+        return new RequestTracer(
+                Double.parseDouble(DatabaseConnection.getProperty("trace.sampleRate", "0")),
+                DatabaseConnection.getBooleanProperty("trace.allowHeader", true),
+                DatabaseConnection.getBooleanProperty("trace.log", false));
+    }
+
+    public void register(Javalin app) {
+        app.before("/api/*", this::start);
+        app.after("/api/*", this::finish);
+    }
+
+    private void start(Context ctx) {
+        RequestTrace trace = isTraced(ctx) ? new RequestTrace(ctx.method() + " " + ctx.path()) : null;
+        // always set: a pooled request thread may still hold the previous request's trace
+        RequestTrace.attach(trace);
+        if (trace != null) {
+            ctx.attribute(TRACE, trace);
+        }
+    }
+
+    private boolean isTraced(Context ctx) {
+        if (allowHeader && "1".equals(ctx.header("X-Trace"))) {
+            return true;
+        }
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void finish(Context ctx) {
+        RequestTrace trace = ctx.attribute(TRACE);
+        if (trace == null) {
+            return;
+        }
+        RequestTrace.attach(null);
+        long total = trace.getElapsedNanos();
+        if (!ctx.res().isCommitted()) {
+            ctx.header("Server-Timing", trace.toServerTiming(total));
+        }
+        if (log) {
+            System.out.println(trace.toLog(String.valueOf(ctx.statusCode()), total));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.contactmanager.api;
+
+import com.contactmanager.metrics.RequestTrace;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.javalin.json.JavalinJackson;
+import io.javalin.json.JsonMapper;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Javalin JsonMapper that encodes the contact API types without reflection
+ * <p>
+ * Contacts, pages, suggestions, change-feed entries, upsert results and the
+ * controller's response wrappers (JsonWritable) go through ContactJsonCodec,
+ * written token by token straight to the response stream - no intermediate
+ * tree, no bean introspection. Anything else (import and batch reports, ...)
+ * falls back to Jackson databind, so every endpoint keeps working.
+ * <p>
+ * Registered in ApiServer with config.jsonMapper(new StreamingJsonMapper())
+ * CBOR uses the same codecs through CborCodec.
+ */
+public class StreamingJsonMapper implements JsonMapper {
+
+    private final ApiValueCodec codec;
+    private final JsonFactory factory;
+
+    public StreamingJsonMapper() {
+        this(JavalinJackson.defaultMapper());
+    }
+
+    /**
+     * @param fallback JSON mapper for types without a hand-written codec
+     */
+    public StreamingJsonMapper(ObjectMapper fallback) {
+        if (!JsonFactory.FORMAT_NAME_JSON.equals(fallback.getFactory().getFormatName())) {
+            throw new IllegalArgumentException("JSON ObjectMapper required, got "
+                    + fallback.getFactory().getFormatName() + " - use CborCodec for CBOR");
+        }
+        this.codec = new ApiValueCodec(fallback);
+        this.factory = codec.getFactory();
+    }
+
+    @NotNull
+    @Override
+    public String toJsonString(@NotNull Object obj, @NotNull Type type) {
+        if (obj instanceof String) {
+            // Javalin passes pre-serialized strings through unchanged
+            return (String) obj;
+        }
+        long start = traceStart();
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator gen = factory.createGenerator(out)) {
+            codec.writeValue(gen, obj);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            traceEnd(start);
+        }
+        return out.toString();
+    }
+
+    @NotNull
+    @Override
+    public InputStream toJsonStream(@NotNull Object obj, @NotNull Type type) {
+        if (obj instanceof String) {
+            return new ByteArrayInputStream(((String) obj).getBytes(StandardCharsets.UTF_8));
+        }
+        long start = traceStart();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator gen = factory.createGenerator(out)) {
+            codec.writeValue(gen, obj);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            traceEnd(start);
+        }
+        return new ByteArrayInputStream(out.toByteArray());
+    }
+
+    // encoding time of traced requests; 0 = request not traced, nothing to record
+    private static long traceStart() {
+        return RequestTrace.current() == null ? 0 : System.nanoTime();
+    }
+
+    private static void traceEnd(long start) {
+        if (start != 0) {
+            RequestTrace.record(RequestTrace.JSON, start);
+        }
+    }
+
+    /**
+     * Writes the stream as one JSON array, element by element, as it is consumed
+     */
+    @Override
+    public void writeToOutputStream(@NotNull Stream<?> stream, @NotNull OutputStream outputStream) {
+        try (JsonGenerator gen = factory.createGenerator(outputStream)) {
+            // the response stream belongs to Javalin - flush it, don't close it
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartArray();
+            Iterator<?> it = stream.iterator();
+            while (it.hasNext()) {
+                codec.writeValue(gen, it.next());
+            }
+            gen.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonString(@NotNull String json, @NotNull Type targetType) {
+        try (JsonParser parser = factory.createParser(json)) {
+            return codec.read(parser, targetType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T fromJsonStream(@NotNull InputStream json, @NotNull Type targetType) {
+        try (JsonParser parser = factory.createParser(json)) {
+            return codec.read(parser, targetType);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.contactmanager.dao;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.util.DatabaseConnection;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous façade over a ContactDAO: every call returns a CompletableFuture
+ * and runs on a dedicated, bounded executor
+ * <p>
+ * Interview Point: JDBC is blocking, so "async" here means the blocking happens
+ * on threads we own instead of the caller's. The executor has as many threads as
+ * the connection pool has connections (more would only wait for a connection) and
+ * a bounded queue, so overload shows up as a RejectedExecutionException right away
+ * instead of as an ever-growing backlog.
+ * <p>
+ * - every call has a deadline (async.timeoutMs); a late call fails with TimeoutException
+ * - cancelling a future (or its timeout) drops the call if it is still queued and
+ *   interrupts it if it is waiting for a pooled connection
+ * - a statement already running on the server is left to finish; its result is discarded
+ * <p>
+ * Configured with async.threads, async.queueCapacity and async.timeoutMs.
+ */
+public class AsyncContactDAO {
+
+    private final ContactDAO delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param delegate      DAO doing the actual (blocking) work
+     * @param threads       calls running at the same time
+     * @param queueCapacity calls allowed to wait for a thread before new ones are rejected
+     * @param timeoutMillis deadline of each call (0 = none)
+     */
+    public AsyncContactDAO(ContactDAO delegate, int threads, int queueCapacity, long timeoutMillis) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemonThreads(), new ThreadPoolExecutor.AbortPolicy());
+        // threads are started on first use and stop again when idle
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates the façade from async.* settings in database.properties
+     * The default thread count is db.pool.maxSize
+     */
+    public static AsyncContactDAO fromProperties(ContactDAO delegate) {
+        int threads = DatabaseConnection.getIntProperty("async.threads", 0);
+        if (threads <= 0) {
+            threads = DatabaseConnection.getIntProperty("db.pool.maxSize", 10);
+        }
+        return new AsyncContactDAO(delegate, threads,
+                DatabaseConnection.getIntProperty("async.queueCapacity", 1000),
+                DatabaseConnection.getLongProperty("async.timeoutMs", 5000));
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "contact-dao-async-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public CompletableFuture<Contact> getContactById(int id) {
+        return submit(() -> delegate.getContactById(id));
+    }
+
+    public CompletableFuture<List<Contact>> getContactsAfter(int afterId, int limit) {
+        return submit(() -> delegate.getContactsAfter(afterId, limit));
+    }
+
+    public CompletableFuture<List<Contact>> searchContactsAfter(String name, String afterFirstName, int afterId, int limit) {
+        return submit(() -> delegate.searchContactsAfter(name, afterFirstName, afterId, limit));
+    }
+
+    public CompletableFuture<List<Contact>> searchContactByName(String name) {
+        return submit(() -> delegate.searchContactByName(name));
+    }
+
+    public CompletableFuture<Integer> getContactCount() {
+        return submit(delegate::getContactCount);
+    }
+
+    public CompletableFuture<Long> getChangeHorizon() {
+        return submit(delegate::getChangeHorizon);
+    }
+
+    public CompletableFuture<List<ContactChange>> getChangesSince(long afterVersion, int afterId,
+                                                                  long beforeVersion, int limit) {
+        return submit(() -> delegate.getChangesSince(afterVersion, afterId, beforeVersion, limit));
+    }
+
+    /**
+     * Runs call on the executor
+     *
+     * @return future completed with the call's result, or exceptionally with
+     *         RejectedExecutionException (queue full) or TimeoutException (deadline passed)
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        // the caller's request trace follows the call onto the executor thread
+        RequestTrace trace = RequestTrace.current();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                // a call cancelled while queued has nobody waiting for it
+                if (result.isDone()) {
+                    return;
+                }
+                // dependent stages (e.g. writing the response) run inside complete(), still traced
+                RequestTrace previous = RequestTrace.attach(trace);
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    RequestTrace.attach(previous);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        result.whenComplete((value, error) -> {
+            if (error == null) {
+                return;
+            }
+            if (error instanceof TimeoutException) {
+                timedOut.increment();
+            }
+            // frees the queue slot now, or interrupts a wait for a connection
+            if (task.cancel(true)) {
+                executor.remove((Runnable) task);
+            }
+        });
+        return timeoutMillis > 0 ? result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : result;
+    }
+
+    /**
+     * Makes cancelling dependent (e.g. a thenApply stage) also cancel source
+     * CompletableFuture does not pass cancellation back up a chain by itself
+     *
+     * @return dependent
+     */
+    public static <T> CompletableFuture<T> cancelTogether(CompletableFuture<T> dependent, CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+
+    public void registerMetrics(MetricsRegistry registry) {
+        registry.gauge("dao_async_active", "Async DAO calls running", this::getActive);
+        registry.gauge("dao_async_queued", "Async DAO calls waiting for a thread", this::getQueued);
+        registry.functionCounter("dao_async_rejected_total", "Async DAO calls rejected because the queue was full",
+                this::getRejected);
+        registry.functionCounter("dao_async_timeouts_total", "Async DAO calls that missed their deadline",
+                this::getTimedOut);
+    }
+
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getActive() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Stops accepting calls; calls already submitted still complete
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AsyncContactDAO{threads=%d, active=%d, queued=%d, rejected=%d, timedOut=%d}",
+                getThreads(), getActive(), getQueued(), getRejected(), getTimedOut());
+    }
+}
@@ -0,0 +1,220 @@
+package com.contactmanager.dao;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.model.BatchResult;
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.UpsertResult;
+import com.contactmanager.util.BoundedCache;
+import com.contactmanager.util.DatabaseConnection;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache in front of another ContactDAO (Decorator pattern)
+ * <p>
+ * Interview Point: Because the service only knows the ContactDAO interface,
+ * caching can be added or removed without touching business logic:
+ * new CachingContactDAO(new ContactDAOImpl()) behaves exactly like the
+ * wrapped DAO, except that getContactById for hot ids is answered from memory.
+ * <p>
+ * - reads: cache hit, or load from the wrapped DAO and remember the result
+ * - writes: update/delete go to the database first, then invalidate the entry
+ * - callers get copies, so editing a returned Contact never changes the cache
+ * <p>
+ * Configured with cache.enabled, cache.maxWeightBytes and cache.ttlSeconds.
+ */
+public class CachingContactDAO implements ContactDAO {
+
+    private final ContactDAO delegate;
+    private final BoundedCache<Integer, Contact> cache;
+
+    public CachingContactDAO(ContactDAO delegate, long maxWeightBytes, long ttlMillis) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(maxWeightBytes, ttlMillis, CachingContactDAO::estimateSize);
+    }
+
+    /**
+     * Wraps dao in a cache unless cache.enabled=false in database.properties
+     */
+    public static ContactDAO wrapIfEnabled(ContactDAO dao) {
+        if (!DatabaseConnection.getBooleanProperty("cache.enabled", true)) {
+            System.out.println("Contact cache disabled");
+            return dao;
+        }
+        return new CachingContactDAO(dao,
+                DatabaseConnection.getLongProperty("cache.maxWeightBytes", 64L * 1024 * 1024),
+                DatabaseConnection.getLongProperty("cache.ttlSeconds", 300) * 1000);
+    }
+
+    public void registerMetrics(MetricsRegistry registry) {
+        cache.registerMetrics(registry, "contact");
+    }
+
+    public BoundedCache.CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public Contact getContactById(int id) {
+        Contact cached = cache.get(id);
+        if (cached != null) {
+            return new Contact(cached);
+        }
+
+        long generation = cache.generation();
+        Contact loaded = delegate.getContactById(id);
+        // not cached if a write invalidated something while we were loading -
+        // checked under the cache lock, so the write cannot slip in before the put
+        if (loaded != null) {
+            cache.putIfGeneration(id, new Contact(loaded), generation);
+        }
+        return loaded;
+    }
+
+    @Override
+    public Contact updateContact(Contact contact) {
+        Contact updated = delegate.updateContact(contact);
+        invalidate(contact.getId());
+        return updated;
+    }
+
+    @Override
+    public Contact deleteContact(int id) {
+        Contact deleted = delegate.deleteContact(id);
+        invalidate(id);
+        return deleted;
+    }
+
+    @Override
+    public BatchResult updateContacts(List<Contact> contacts) {
+        BatchResult result = delegate.updateContacts(contacts);
+        contacts.forEach(contact -> invalidate(contact.getId()));
+        return result;
+    }
+
+    @Override
+    public BatchResult deleteContacts(List<Integer> ids) {
+        BatchResult result = delegate.deleteContacts(ids);
+        ids.forEach(this::invalidate);
+        return result;
+    }
+
+    @Override
+    public UpsertResult upsertContact(Contact contact, UpsertKey key) {
+        UpsertResult result = delegate.upsertContact(contact, key);
+        if (result.isSuccess() && !result.isInserted()) {
+            invalidate(result.getContact().getId());
+        }
+        return result;
+    }
+
+    @Override
+    public List<UpsertResult> upsertContacts(List<Contact> contacts, UpsertKey key) {
+        List<UpsertResult> results = delegate.upsertContacts(contacts, key);
+        for (UpsertResult result : results) {
+            if (result.isSuccess() && !result.isInserted()) {
+                invalidate(result.getContact().getId());
+            }
+        }
+        return results;
+    }
+
+    private void invalidate(int id) {
+        cache.invalidate(id);
+    }
+
+    // ========== Pass-through operations (new rows are never cached yet) ==========
+
+    @Override
+    public Contact addContact(Contact contact) {
+        return delegate.addContact(contact);
+    }
+
+    @Override
+    public BatchResult addContacts(List<Contact> contacts) {
+        return delegate.addContacts(contacts);
+    }
+
+    @Override
+    public long copyContacts(Iterator<Contact> contacts, Consumer<Contact> inserted) {
+        return delegate.copyContacts(contacts, inserted);
+    }
+
+    @Override
+    public Set<String> findExistingPhones(Collection<String> phoneDigits) {
+        return delegate.findExistingPhones(phoneDigits);
+    }
+
+    @Override
+    public List<Contact> getAllContacts() {
+        return delegate.getAllContacts();
+    }
+
+    @Override
+    public Stream<Contact> streamAllContacts() {
+        return delegate.streamAllContacts();
+    }
+
+    @Override
+    public List<Contact> getContactsAfter(int afterId, int limit) {
+        return delegate.getContactsAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Contact> searchContactsAfter(String name, String afterFirstName, int afterId, int limit) {
+        return delegate.searchContactsAfter(name, afterFirstName, afterId, limit);
+    }
+
+    @Override
+    public List<Contact> searchContactByName(String name) {
+        return delegate.searchContactByName(name);
+    }
+
+    @Override
+    public List<Contact> searchContactByName(String name, int limit) {
+        return delegate.searchContactByName(name, limit);
+    }
+
+    @Override
+    public int getContactCount() {
+        return delegate.getContactCount();
+    }
+
+    @Override
+    public long estimateContactCount() {
+        return delegate.estimateContactCount();
+    }
+
+    @Override
+    public long getChangeHorizon() {
+        return delegate.getChangeHorizon();
+    }
+
+    @Override
+    public List<ContactChange> getChangesSince(long afterVersion, int afterId, long beforeVersion, int limit) {
+        return delegate.getChangesSince(afterVersion, afterId, beforeVersion, limit);
+    }
+
+    /**
+     * Approximate heap size of a cached contact in bytes
+     */
+    private static long estimateSize(Contact contact) {
+        long size = 96; // object header, fields, two Timestamps
+        size += stringSize(contact.getFirstName());
+        size += stringSize(contact.getLastName());
+        size += stringSize(contact.getPhone());
+        size += stringSize(contact.getEmail());
+        size += stringSize(contact.getAddress());
+        return size;
+    }
+
+    private static long stringSize(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -1,6 +1,14 @@
 package com.contactmanager.dao;
+import com.contactmanager.model.BatchResult;
 import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.UpsertResult;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
 /**
@@ -15,17 +23,95 @@ import java.util.List;
 
 public interface ContactDAO {
 
+    /**
+     * Unique key used to decide whether an upsert inserts or updates
+     */
+    enum UpsertKey {
+        // contacts.email (UNIQUE in schema.sql)
+        EMAIL,
+        // phone digits (idx_contacts_phone_digits)
+        PHONE
+    }
+
 
     /**
      * Inserts a new contact into database
      *
-     * @param contact Contact object with data to insert
-     * @return true if insertion successful, false otherwise
+     * @param contact Contact object with data to insert (its id is set to the generated id)
+     * @return the stored contact (with id and timestamps), or null if insertion failed
      *
      * Real-time use: When user adds new contact from UI
      */
 
-    boolean addContact(Contact contact);
+    Contact addContact(Contact contact);
+
+
+    /**
+     * Inserts many contacts in one transaction using JDBC batching
+     *
+     * @param contacts Contacts to insert
+     * @return generated id per row, per-row failures and throughput
+     *
+     * Real-time use: Bulk loading contacts from another system
+     */
+
+    BatchResult addContacts(List<Contact> contacts);
+
+
+    /**
+     * Inserts a contact, or updates the existing contact with the same key
+     * Single statement: INSERT ... ON CONFLICT ... DO UPDATE ... RETURNING
+     *
+     * @param contact Contact data
+     * @param key     Unique key that identifies an existing contact
+     * @return stored row and whether it was inserted or updated, or a failure
+     *
+     * Real-time use: Sync clients pushing contacts without a read first
+     */
+
+    UpsertResult upsertContact(Contact contact, UpsertKey key);
+
+
+    /**
+     * Upserts many contacts in one transaction
+     *
+     * @param contacts Contacts to insert or update
+     * @param key      Unique key that identifies existing contacts
+     * @return one result per input row, in input order
+     *
+     * Real-time use: Sync jobs pushing a batch of changed contacts
+     */
+
+    List<UpsertResult> upsertContacts(List<Contact> contacts, UpsertKey key);
+
+
+    /**
+     * Streams contacts into the database with PostgreSQL COPY
+     * Contacts are consumed one at a time, so memory use does not depend on row count.
+     * Rows whose phone or email already exists are skipped.
+     * Each stored row (with its generated id) is passed to inserted, also one at a time,
+     * before the import commits - if it then fails, -1 is returned.
+     *
+     * @param contacts Validated contacts to import
+     * @param inserted Receives every row actually inserted
+     * @return Number of rows actually inserted, or -1 if the import failed
+     *
+     * Real-time use: Nightly import of millions of contacts from a CSV file
+     */
+
+    long copyContacts(Iterator<Contact> contacts, Consumer<Contact> inserted);
+
+
+    /**
+     * Checks which phone numbers already exist (compared by digits only)
+     *
+     * @param phoneDigits Phone numbers reduced to their digits
+     * @return The subset of phoneDigits already stored in the database
+     *
+     * Real-time use: Rejecting duplicate phone numbers before insert
+     */
+
+    Set<String> findExistingPhones(Collection<String> phoneDigits);
 
 
     /**
@@ -51,44 +137,119 @@ public interface ContactDAO {
     List<Contact> getAllContacts();
 
 
+    /**
+     * Streams all contacts ordered by id without loading them into memory
+     * The stream holds a database connection: always close it (try-with-resources)
+     *
+     * @return Lazily fetched stream of contacts
+     *
+     * Real-time use: Exporting or serving very large contact tables
+     */
+
+    Stream<Contact> streamAllContacts();
+
+
+    /**
+     * Retrieves one page of contacts ordered by id (keyset pagination)
+     *
+     * @param afterId Id of the last contact on the previous page (0 for the first page)
+     * @param limit   Maximum number of contacts to return
+     * @return Contacts with id greater than afterId, at most limit of them
+     *
+     * Real-time use: Paging through the contact list in the UI
+     */
+
+    List<Contact> getContactsAfter(int afterId, int limit);
+
+
+    /**
+     * Retrieves one page of name search results ordered by (first_name, id)
+     *
+     * @param name           Name to search (can be partial)
+     * @param afterFirstName first_name of the last result on the previous page (null for the first page)
+     * @param afterId        id of the last result on the previous page
+     * @param limit          Maximum number of contacts to return
+     * @return Matching contacts after the given position, at most limit of them
+     *
+     * Real-time use: Paging through search results
+     */
+
+    List<Contact> searchContactsAfter(String name, String afterFirstName, int afterId, int limit);
+
+
       /**
      * Searches contacts by name (first or last name)
      * Uses LIKE query for partial matching
      *
      * @param name Name to search (can be partial)
-     * @return List of matching contacts
+     * @return List of matching contacts (at most the configured search limit)
      *
      * Real-time use: Search functionality in UI
      */
 
       List<Contact> searchContactByName(String name);
+
+
+      /**
+     * Searches contacts by name, best matches first
+     *
+     * @param name  Name to search (can be partial)
+     * @param limit Maximum number of results
+     * @return Matching contacts ranked by similarity to name
+     *
+     * Real-time use: Search box that only shows the top results
+     */
+
+      List<Contact> searchContactByName(String name, int limit);
   /**
      * Updates existing contact details
      *
      * @param contact Contact object with updated data (must have valid id)
-     * @return true if update successful, false otherwise
+     * @return the updated contact as stored, or null if not found or update failed
      *
      * Real-time use: When user edits contact information
      */
 
 
-  boolean updateContact(Contact contact);
+  Contact updateContact(Contact contact);
 
    /**
      * Deletes a contact by ID
      *
      * @param id Unique identifier of contact to delete
-     * @return true if deletion successful, false otherwise
+     * @return the deleted contact, or null if not found or deletion failed
      *
      * Real-time use: When user removes a contact
      */
 
-   boolean deleteContact(int id);
+   Contact deleteContact(int id);
+
+    /**
+     * Updates many contacts in one transaction using JDBC batching
+     *
+     * @param contacts Contacts with updated data (each must have a valid id)
+     * @return id per updated row, and "Contact not found" or the database error per failed row
+     *
+     * Real-time use: Bulk edits pushed by a sync client
+     */
+
+    BatchResult updateContacts(List<Contact> contacts);
+
+    /**
+     * Deletes many contacts in one transaction using JDBC batching
+     *
+     * @param ids Ids of contacts to delete
+     * @return id per deleted row, and "Contact not found" per id that did not exist
+     *
+     * Real-time use: Bulk removal of contacts deleted in another system
+     */
+
+    BatchResult deleteContacts(List<Integer> ids);
 
      /**
      * Counts total number of contacts
      *
-     * @return Total count of contacts in database
+     * @return Total count of contacts in database, or -1 if the query failed
      *
      * Real-time use: Dashboard statistics, pagination
      */
@@ -96,5 +257,46 @@ public interface ContactDAO {
      int getContactCount();
 
 
+     /**
+     * Estimates the number of contacts from table statistics (pg_class.reltuples)
+     * Constant time regardless of table size, but only as fresh as the last ANALYZE
+     *
+     * @return Estimated row count, or -1 if no estimate is available
+     *
+     * Real-time use: Dashboards on very large tables
+     */
+
+     long estimateContactCount();
+
+
+    /**
+     * Returns the change-feed horizon: every version below it belongs to a finished
+     * transaction, so no row with a lower version can still appear
+     *
+     * @return Horizon version, or -1 if it could not be read
+     *
+     * Real-time use: Upper bound for one delta sync request
+     */
+
+     long getChangeHorizon();
+
+
+    /**
+     * Retrieves created/updated contacts and tombstones of deleted contacts with
+     * (version, id) after the given position and version below beforeVersion, oldest first
+     *
+     * @param afterVersion  version of the last change the client has seen
+     * @param afterId       id of the last change the client has seen (0 = none at that version)
+     * @param beforeVersion horizon from getChangeHorizon()
+     * @param limit         maximum number of changes
+     * @return changes in (version, id) order, or null if the query failed
+     *         (an empty list would wrongly tell the client it is caught up)
+     *
+     * Real-time use: Mobile clients syncing only what changed since their last pull
+     */
+
+     List<ContactChange> getChangesSince(long afterVersion, int afterId, long beforeVersion, int limit);
+
+
 
 }
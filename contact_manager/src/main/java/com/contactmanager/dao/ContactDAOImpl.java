@@ -1,12 +1,33 @@
 package com.contactmanager.dao;
 
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.model.BatchResult;
 import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.UpsertResult;
 import com.contactmanager.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 
 import javax.xml.crypto.Data;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementation of ContactDAO interface
@@ -23,39 +44,591 @@ import java.util.List;
 
 public class ContactDAOImpl implements ContactDAO {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO contacts (first_name, last_name, phone, email,address) VALUES (?,?,?,?,?)";
+
+    // Bytes buffered before each COPY write
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Rows sent per executeBatch() round trip
+    private final int batchSize = DatabaseConnection.getIntProperty("db.batch.size", 500);
+
+    // Rows fetched per cursor round trip when streaming
+    private final int fetchSize = DatabaseConnection.getIntProperty("db.fetch.size", 1000);
+
+    // Phone digits expression - must match idx_contacts_phone_digits in schema.sql
+    private static final String PHONE_DIGITS = "regexp_replace(phone, '[^0-9]', '', 'g')";
+
+    // Full-name expression - must match idx_contacts_full_name_trgm in schema.sql
+    private static final String FULL_NAME = "(first_name || ' ' || coalesce(last_name, ''))";
+
+    // Shorter search patterns contain no trigram, so the trigram index cannot serve them
+    private static final int MIN_TRIGRAM_PATTERN = 3;
+
+    // Maximum results for an unpaged name search
+    private final int searchLimit = DatabaseConnection.getIntProperty("search.limit", 100);
+
+    // null until checked: is the pg_trgm extension installed?
+    private volatile Boolean trigramAvailable;
+
+    // Times every statement; slow ones are logged (slowlog.* in database.properties)
+    private final SlowQueryLog slowQueryLog = SlowQueryLog.fromProperties();
+
+    /**
+     * Borrows a pooled connection, monitored by the slow-query log
+     */
+    private Connection getConnection() throws SQLException {
+        return slowQueryLog.monitor(DatabaseConnection.getConnection());
+    }
 
     /**
      * Adds a new contact to database
      * Uses PreparedStatement to prevent SQL injection
+     * <p>
+     * Interview Point: "INSERT ... RETURNING *" hands back the stored row
+     * (generated id, timestamps) in the same round trip - no follow-up SELECT
      */
 
     @Override
-    public boolean addContact(Contact contact) {
-        String sql = "INSERT INTO contacts (first_name, last_name, phone, email,address) VALUES (?,?,?,?,?)";
+    public Contact addContact(Contact contact) {
+        String sql = INSERT_SQL + " RETURNING *";
 
         // Try-with-resources: Automatically closes Connection and PreparedStatement
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            // Index starts from 1 (not 0!)
+            bindInsertParameters(pstmt, contact);
 
-            pstmt.setString(1, contact.getFirstName());
-            pstmt.setString(2, contact.getLastName());
-            pstmt.setString(3, contact.getPhone());
-            pstmt.setString(4, contact.getEmail());
-            pstmt.setString(5, contact.getAddress());
+            // RETURNING makes the INSERT produce a result set
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Contact created = extractContactFromResultSet(rs);
+                    // Copy the database-generated id back into the caller's object
+                    contact.setId(created.getId());
+                    return created;
+                }
+            }
+            return null;
 
-            // Execute INSERT query
-            // executeUpdate() returns number of rows affected
-            int rowsAffected = pstmt.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("ERROR ADDING CONTACT " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+
+    /**
+     * Adds many contacts in a single transaction
+     * Demonstrates JDBC batching (addBatch / executeBatch)
+     * <p>
+     * Interview Point: Rows are sent batchSize at a time, so 100k rows cost
+     * 100k / batchSize round trips and one commit instead of 100k of each.
+     * Each batch runs under a savepoint; if PostgreSQL rejects a row the batch
+     * is rolled back to the savepoint and replayed row by row, so one bad row
+     * is reported as a failure instead of aborting the whole load.
+     */
+    @Override
+    public BatchResult addContacts(List<Contact> contacts) {
+        BatchResult result = new BatchResult(contacts.size());
+        long start = System.nanoTime();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
 
-            // If rowsAffected > 0, insertion successful
-            return rowsAffected > 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                for (int from = 0; from < contacts.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, contacts.size());
+                    Savepoint savepoint = conn.setSavepoint();
 
+                    try {
+                        for (int i = from; i < to; i++) {
+                            bindInsertParameters(pstmt, contacts.get(i));
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                        readGeneratedIds(pstmt, result, from, to);
+                        conn.releaseSavepoint(savepoint);
+                    } catch (BatchUpdateException e) {
+                        pstmt.clearBatch();
+                        conn.rollback(savepoint);
+                        insertRowByRow(conn, pstmt, contacts, from, to, result);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
-            System.out.println("ERROR ADDING CONTACT " + e.getMessage());
+            System.err.println("Error adding contacts in batch: " + e.getMessage());
+            // transaction rolled back - nothing from this batch was stored
+            for (int i = 0; i < contacts.size(); i++) {
+                if (!result.getFailures().containsKey(i)) {
+                    result.recordFailure(i, "Batch rolled back: " + e.getMessage());
+                }
+            }
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Replays one failed batch row by row, each under its own savepoint,
+     * to find out which rows PostgreSQL rejects
+     */
+    private void insertRowByRow(Connection conn, PreparedStatement pstmt, List<Contact> contacts,
+                                int from, int to, BatchResult result) throws SQLException {
+        for (int i = from; i < to; i++) {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                bindInsertParameters(pstmt, contacts.get(i));
+                pstmt.executeUpdate();
+                readGeneratedIds(pstmt, result, i, i + 1);
+                conn.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                conn.rollback(savepoint);
+                result.recordFailure(i, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Inserts or updates a contact in one statement
+     * <p>
+     * Interview Point: "INSERT ... ON CONFLICT (key) DO UPDATE" lets PostgreSQL
+     * decide atomically, so there is no read-then-write race and only one round trip.
+     * "xmax = 0" is true only for a freshly inserted row version, which tells us
+     * which branch ran.
+     */
+    @Override
+    public UpsertResult upsertContact(Contact contact, UpsertKey key) {
+        String sql = "INSERT INTO contacts (first_name, last_name, phone, email, address) VALUES (?,?,?,?,?) "
+                + upsertConflictClause(key);
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            bindInsertParameters(pstmt, contact);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return toUpsertResult(rs);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error upserting the contact :" + e.getMessage());
+            return UpsertResult.failed(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Upserts many contacts, batchSize rows per statement
+     * <p>
+     * Each chunk is sent as arrays and expanded with unnest(), so one statement
+     * (and one round trip) upserts the whole chunk and RETURNING reports every row.
+     * A key may appear only once per statement, so repeated keys in a chunk
+     * are collapsed to their last occurrence. A failing chunk is rolled back to
+     * its savepoint and retried row by row to pinpoint the bad rows.
+     */
+    @Override
+    public List<UpsertResult> upsertContacts(List<Contact> contacts, UpsertKey key) {
+        UpsertResult[] results = new UpsertResult[contacts.size()];
+        String sql = "INSERT INTO contacts (first_name, last_name, phone, email, address) "
+                + "SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::text[]) "
+                + upsertConflictClause(key);
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int from = 0; from < contacts.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, contacts.size());
+
+                    // last occurrence of each key in this chunk -> the rows that share it
+                    Map<String, List<Integer>> rowsByKey = new LinkedHashMap<>();
+                    for (int i = from; i < to; i++) {
+                        String rowKey = upsertKeyOf(contacts.get(i), key);
+                        if (rowKey == null || rowKey.isEmpty()) {
+                            // nothing to match on - a NULL key never conflicts
+                            results[i] = UpsertResult.failed("Missing " + key.name().toLowerCase() + " for upsert");
+                            continue;
+                        }
+                        List<Integer> rows = rowsByKey.remove(rowKey);
+                        if (rows == null) {
+                            rows = new ArrayList<>(1);
+                        }
+                        rows.add(i);
+                        rowsByKey.put(rowKey, rows);
+                    }
+
+                    List<Contact> chunk = new ArrayList<>(rowsByKey.size());
+                    for (List<Integer> rows : rowsByKey.values()) {
+                        chunk.add(contacts.get(rows.get(rows.size() - 1)));
+                    }
+
+                    if (chunk.isEmpty()) {
+                        continue;
+                    }
+
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        bindUnnestArrays(conn, pstmt, chunk);
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                UpsertResult result = toUpsertResult(rs);
+                                List<Integer> rows = rowsByKey.get(upsertKeyOf(result.getContact(), key));
+                                if (rows != null) {
+                                    for (int row : rows) {
+                                        results[row] = result;
+                                    }
+                                }
+                            }
+                        }
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException e) {
+                        conn.rollback(savepoint);
+                        upsertRowByRow(conn, pstmt, contacts, rowsByKey, results);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error upserting contacts in batch: " + e.getMessage());
+            // transaction rolled back - nothing from this batch was stored
+            Arrays.fill(results, UpsertResult.failed("Batch rolled back: " + e.getMessage()));
+        }
+
+        List<UpsertResult> ordered = new ArrayList<>(results.length);
+        for (UpsertResult result : results) {
+            ordered.add(result != null ? result : UpsertResult.failed("No row returned"));
+        }
+        return ordered;
+    }
+
+    /**
+     * Retries a failed upsert chunk one key at a time, each under its own savepoint
+     */
+    private void upsertRowByRow(Connection conn, PreparedStatement pstmt, List<Contact> contacts,
+                                Map<String, List<Integer>> rowsByKey, UpsertResult[] results) throws SQLException {
+        for (List<Integer> rows : rowsByKey.values()) {
+            Contact contact = contacts.get(rows.get(rows.size() - 1));
+            UpsertResult result;
+
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                bindUnnestArrays(conn, pstmt, List.of(contact));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    result = rs.next() ? toUpsertResult(rs) : UpsertResult.failed("No row returned");
+                }
+                conn.releaseSavepoint(savepoint);
+            } catch (SQLException e) {
+                conn.rollback(savepoint);
+                result = UpsertResult.failed(e.getMessage());
+            }
+
+            for (int row : rows) {
+                results[row] = result;
+            }
+        }
+    }
+
+    private static void bindUnnestArrays(Connection conn, PreparedStatement pstmt, List<Contact> chunk)
+            throws SQLException {
+        int size = chunk.size();
+        String[] firstNames = new String[size];
+        String[] lastNames = new String[size];
+        String[] phones = new String[size];
+        String[] emails = new String[size];
+        String[] addresses = new String[size];
+        for (int i = 0; i < size; i++) {
+            Contact contact = chunk.get(i);
+            firstNames[i] = contact.getFirstName();
+            lastNames[i] = contact.getLastName();
+            phones[i] = contact.getPhone();
+            emails[i] = contact.getEmail();
+            addresses[i] = contact.getAddress();
+        }
+        pstmt.setArray(1, conn.createArrayOf("varchar", firstNames));
+        pstmt.setArray(2, conn.createArrayOf("varchar", lastNames));
+        pstmt.setArray(3, conn.createArrayOf("varchar", phones));
+        pstmt.setArray(4, conn.createArrayOf("varchar", emails));
+        pstmt.setArray(5, conn.createArrayOf("text", addresses));
+    }
+
+    /**
+     * ON CONFLICT ... DO UPDATE ... RETURNING clause for the chosen key
+     * The conflict target must match a unique index exactly
+     */
+    private static String upsertConflictClause(UpsertKey key) {
+        String target = key == UpsertKey.EMAIL ? "(email)" : "((" + PHONE_DIGITS + "))";
+        // the key column itself is left alone; everything else takes the new values
+        String keyedColumn = key == UpsertKey.EMAIL ? "email" : "phone";
+        StringBuilder set = new StringBuilder();
+        for (String column : new String[]{"first_name", "last_name", "phone", "email", "address"}) {
+            if (!column.equals(keyedColumn)) {
+                set.append(column).append(" = EXCLUDED.").append(column).append(", ");
+            }
+        }
+        return "ON CONFLICT " + target + " DO UPDATE SET " + set + "updated_at = CURRENT_TIMESTAMP "
+                + "RETURNING *, (xmax = 0) AS inserted";
+    }
+
+    /**
+     * Value of the upsert key for a contact, as the unique index compares it
+     */
+    private static String upsertKeyOf(Contact contact, UpsertKey key) {
+        if (key == UpsertKey.EMAIL) {
+            return contact.getEmail();
+        }
+        return contact.getPhone() == null ? null : contact.getPhone().replaceAll("[^0-9]", "");
+    }
+
+    private UpsertResult toUpsertResult(ResultSet rs) throws SQLException {
+        Contact stored = extractContactFromResultSet(rs);
+        return rs.getBoolean("inserted") ? UpsertResult.inserted(stored) : UpsertResult.updated(stored);
+    }
+
+
+    /**
+     * Imports contacts with PostgreSQL COPY through a temporary staging table
+     * Demonstrates the driver's CopyManager API
+     * <p>
+     * Interview Point: COPY streams rows in the wire protocol without per-row
+     * statement overhead, which is far faster than INSERT even when batched.
+     * Rows are encoded as CSV into a small reusable buffer and flushed every
+     * COPY_BUFFER_SIZE bytes, so memory is constant regardless of row count.
+     * <p>
+     * The staging table (dropped on commit) lets one INSERT ... SELECT merge the
+     * rows: duplicate phones (in the file or already stored) and existing emails
+     * are skipped instead of failing the whole COPY. RETURNING hands back only the
+     * rows that were inserted, read with a cursor (fetchSize rows per round trip),
+     * so callers can index them without rescanning the table.
+     */
+    @Override
+    public long copyContacts(Iterator<Contact> contacts, Consumer<Contact> inserted) {
+        String createStaging = "CREATE TEMP TABLE contacts_import ("
+                + "line_no BIGINT, first_name VARCHAR(50), last_name VARCHAR(50), "
+                + "phone VARCHAR(15), email VARCHAR(100), address TEXT) ON COMMIT DROP";
+        String copySql = "COPY contacts_import (line_no, first_name, last_name, phone, email, address) "
+                + "FROM STDIN WITH (FORMAT csv)";
+        String mergeSql = "INSERT INTO contacts (first_name, last_name, phone, email, address) "
+                + "SELECT first_name, last_name, phone, email, address FROM ("
+                + "  SELECT DISTINCT ON (" + PHONE_DIGITS + ") * FROM contacts_import"
+                + "  ORDER BY " + PHONE_DIGITS + ", line_no) d "
+                + "ORDER BY line_no "
+                // unique indexes on email and phone digits skip rows that already exist
+                + "ON CONFLICT DO NOTHING "
+                + "RETURNING *";
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(createStaging);
+                }
+
+                CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(copySql);
+                try {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(COPY_BUFFER_SIZE + 1024);
+                    StringBuilder row = new StringBuilder(256);
+                    long lineNo = 0;
+
+                    while (contacts.hasNext()) {
+                        Contact contact = contacts.next();
+                        row.setLength(0);
+                        row.append(++lineNo).append(',');
+                        appendCsvField(row, contact.getFirstName()).append(',');
+                        appendCsvField(row, contact.getLastName()).append(',');
+                        appendCsvField(row, contact.getPhone()).append(',');
+                        appendCsvField(row, contact.getEmail()).append(',');
+                        appendCsvField(row, contact.getAddress()).append('\n');
+
+                        byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                        buffer.write(bytes, 0, bytes.length);
+                        if (buffer.size() >= COPY_BUFFER_SIZE) {
+                            copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                            buffer.reset();
+                        }
+                    }
+                    if (buffer.size() > 0) {
+                        copyIn.writeToCopy(buffer.toByteArray(), 0, buffer.size());
+                    }
+                    copyIn.endCopy();
+                } finally {
+                    if (copyIn.isActive()) {
+                        copyIn.cancelCopy();
+                    }
+                }
+
+                long count = 0;
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.setFetchSize(fetchSize);
+                    try (ResultSet rs = stmt.executeQuery(mergeSql)) {
+                        while (rs.next()) {
+                            inserted.accept(extractContactFromResultSet(rs));
+                            count++;
+                        }
+                    }
+                }
+                conn.commit();
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error importing contacts with COPY: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return -1;
+        }
+    }
+
+    /**
+     * Appends a value in COPY CSV format
+     * null becomes an empty unquoted field (NULL), everything else is quoted
+     */
+    private static StringBuilder appendCsvField(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        return row.append('"');
+    }
+
+    /**
+     * Reads generated ids (in insertion order) for rows from..to-1
+     */
+    private void readGeneratedIds(PreparedStatement pstmt, BatchResult result, int from, int to) throws SQLException {
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            int index = from;
+            while (keys.next() && index < to) {
+                result.recordSuccess(index++, keys.getInt(1));
+            }
+        }
+    }
+
+    /**
+     * Binds contact fields to the placeholders of INSERT_SQL
+     */
+    private void bindInsertParameters(PreparedStatement pstmt, Contact contact) throws SQLException {
+        // Index starts from 1 (not 0!)
+        pstmt.setString(1, contact.getFirstName());
+        pstmt.setString(2, contact.getLastName());
+        pstmt.setString(3, contact.getPhone());
+        pstmt.setString(4, contact.getEmail());
+        pstmt.setString(5, contact.getAddress());
+    }
+
+
+    /**
+     * Finds which of the given phone numbers are already stored
+     * One indexed lookup (idx_contacts_phone_digits) for the whole set,
+     * instead of loading every contact and comparing in Java
+     */
+    @Override
+    public Set<String> findExistingPhones(Collection<String> phoneDigits) {
+        Set<String> existing = new HashSet<>();
+        if (phoneDigits.isEmpty()) {
+            return existing;
+        }
+
+        String sql = "SELECT " + PHONE_DIGITS + " FROM contacts WHERE " + PHONE_DIGITS + " = ANY (?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setArray(1, conn.createArrayOf("text", phoneDigits.toArray()));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            // the unique index still rejects duplicates on insert
+            System.err.println("Error checking existing phone numbers: " + e.getMessage());
+        }
+        return existing;
+    }
+
+
+    /**
+     * Oldest transaction still running, as a version
+     * <p>
+     * Interview Point: rows are versioned with the id of the writing transaction.
+     * Transactions below pg_snapshot_xmin have all committed or aborted, so a feed
+     * that stops there never skips a row that a slow transaction commits later.
+     */
+    @Override
+    public long getChangeHorizon() {
+        String sql = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error reading the change horizon :" + e.getMessage());
+        }
+        return -1;
+    }
+
+    /**
+     * Reads changed rows and tombstones after (afterVersion, afterId)
+     * Each branch seeks its (version, id) index and stops after limit rows,
+     * so the cost follows the size of the delta, not the table
+     */
+    @Override
+    public List<ContactChange> getChangesSince(long afterVersion, int afterId, long beforeVersion, int limit) {
+        String sql = "SELECT * FROM ("
+                + " (SELECT id, version, false AS deleted, first_name, last_name, phone, email, address,"
+                + "         created_at, updated_at"
+                + "  FROM contacts WHERE (version, id) > (?, ?) AND version < ?"
+                + "  ORDER BY version, id LIMIT ?)"
+                + " UNION ALL"
+                + " (SELECT id, version, true, NULL, NULL, NULL, NULL, NULL, NULL, NULL"
+                + "  FROM contact_tombstones WHERE (version, id) > (?, ?) AND version < ?"
+                + "  ORDER BY version, id LIMIT ?)"
+                + ") changes ORDER BY version, id LIMIT ?";
+
+        List<ContactChange> changes = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int branch = 0; branch < 2; branch++) {
+                int offset = branch * 4;
+                pstmt.setLong(offset + 1, afterVersion);
+                pstmt.setInt(offset + 2, afterId);
+                pstmt.setLong(offset + 3, beforeVersion);
+                pstmt.setInt(offset + 4, limit);
+            }
+            pstmt.setInt(9, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    changes.add(rs.getBoolean("deleted")
+                            ? ContactChange.deleted(rs.getInt("id"), rs.getLong("version"))
+                            : ContactChange.upserted(extractContactFromResultSet(rs)));
+                }
+            }
+            return changes;
+        } catch (SQLException e) {
+            System.err.println("Error reading contact changes :" + e.getMessage());
+            return null;
         }
     }
 
@@ -69,7 +642,7 @@ public class ContactDAOImpl implements ContactDAO {
 
         String sql = "SELECT * FROM contacts WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
 
@@ -101,7 +674,7 @@ public class ContactDAOImpl implements ContactDAO {
         List<Contact> contacts = new ArrayList<>();
         String sql = "SELECT * FROM contacts ORDER BY id ASC";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -119,50 +692,297 @@ public class ContactDAOImpl implements ContactDAO {
     }
 
 
+    /**
+     * Streams all contacts through a server-side cursor
+     * <p>
+     * Interview Point: By default the PostgreSQL driver reads the whole result
+     * into memory before next() returns. With autocommit off and a fetch size,
+     * it opens a cursor and pulls fetchSize rows per round trip instead, so heap
+     * use stays flat no matter how large the table is.
+     * <p>
+     * The connection stays borrowed until the returned stream is closed.
+     */
+    @Override
+    public Stream<Contact> streamAllContacts() {
+        String sql = "SELECT * FROM contacts ORDER BY id ASC";
+
+        Connection conn = null;
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        try {
+            conn = getConnection();
+            // cursor-based fetching only works inside a transaction
+            conn.setAutoCommit(false);
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            System.out.println("Error streaming contacts: " + e.getMessage());
+            e.printStackTrace();
+            closeQuietly(rs, pstmt, conn);
+            return Stream.empty();
+        }
+
+        ResultSet results = rs;
+        Spliterator<Contact> rows = new Spliterators.AbstractSpliterator<>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Contact> action) {
+                try {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept(extractContactFromResultSet(results));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error streaming contacts: " + e.getMessage(), e);
+                }
+            }
+        };
+
+        PreparedStatement statement = pstmt;
+        Connection connection = conn;
+        // closing the connection returns it to the pool, which ends the read-only transaction
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(results, statement, connection));
+    }
+
+    /**
+     * Closes JDBC resources in reverse order of creation, ignoring errors
+     */
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error closing resource: " + e.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * Searches contacts by name, returning at most search.limit results (default 100)
+     * Callers that need every match must page with searchContactsAfter
+     */
+
+    @Override
+    public List<Contact> searchContactByName(String name) {
+        return searchContactByName(name, searchLimit);
+    }
+
+
     /**
      * Searches contacts by name
      * Demonstrates LIKE query for partial matching
+     * <p>
+     * Interview Point: "ILIKE '%x%'" has a leading wildcard, so a B-tree index
+     * cannot help and PostgreSQL scans the whole table. With the pg_trgm extension
+     * a GiST trigram index on the full-name expression answers the same ILIKE
+     * and also orders by trigram distance ("<->"), so the closest names are read
+     * straight from the index and the scan stops after limit rows - common names
+     * do not mean scoring every match. Without the extension we fall back to the
+     * plain ILIKE query, ranking prefix matches first.
+     * <p>
+     * Patterns under 3 characters have no trigram to look up, so they always use
+     * the plain ILIKE query - same matches (first or last name), but a table scan.
      */
 
     @Override
-    public List<Contact> searchContactByName(String name) {
+    public List<Contact> searchContactByName(String name, int limit) {
 
         List<Contact> contacts = new ArrayList<>();
+        boolean trigram = useTrigramSearch(name);
 
         // ILIKE is case-insensitive LIKE in PostgreSQL
         // % is wildcard (matches any characters)
 
-        String sql = "SELECT * FROM contacts WHERE first_name ILIKE ? OR last_name ILIKE ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        String sql;
+        if (trigram) {
+            // distance only: a second sort key would stop the index from returning rows in order
+            sql = "SELECT * FROM contacts WHERE " + nameFilter(true)
+                    + " ORDER BY " + FULL_NAME + " <-> ? LIMIT ?";
+        } else {
+            sql = "SELECT * FROM contacts WHERE " + nameFilter(false)
+                    + " ORDER BY (first_name ILIKE ?) DESC, first_name ASC, id ASC LIMIT ?";
+        }
+
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
+            int index = bindNameFilter(pstmt, 1, name, trigram);
+            pstmt.setString(index++, trigram ? name : escapeLike(name) + "%");
+            pstmt.setInt(index, limit);
 
-            // Add wildcards for partial matching
-            // "Am" becomes "%Am%"
-            String searchPattern = "%" + name + "%";
-            pstmt.setString(1, searchPattern);
-            pstmt.setString(2, searchPattern);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    contacts.add(extractContactFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Errpr searching contacts " + e.getMessage());
+            e.printStackTrace();
+        }
 
-            ResultSet rs = pstmt.executeQuery();
+        return contacts;
+    }
 
-            while (rs.next()) {
-                contacts.add(extractContactFromResultSet(rs));
+    /**
+     * True if name can be searched with the trigram index: pg_trgm is available
+     * and the pattern is long enough to contain a trigram
+     */
+    private boolean useTrigramSearch(String name) {
+        return name.codePointCount(0, name.length()) >= MIN_TRIGRAM_PATTERN && isTrigramSearchAvailable();
+    }
+
+    /**
+     * WHERE clause matching a name pattern, in the form the available index can serve
+     */
+    private static String nameFilter(boolean trigram) {
+        return trigram
+                ? FULL_NAME + " ILIKE ?"
+                : "(first_name ILIKE ? OR last_name ILIKE ?)";
+    }
+
+    /**
+     * Binds name for nameFilter() and returns the next parameter index
+     */
+    private static int bindNameFilter(PreparedStatement pstmt, int index, String name, boolean trigram)
+            throws SQLException {
+        String pattern = "%" + escapeLike(name) + "%";
+        pstmt.setString(index++, pattern);
+        if (!trigram) {
+            pstmt.setString(index++, pattern);
+        }
+        return index;
+    }
+
+    /**
+     * Escapes LIKE wildcards so user input is matched literally
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Decides once whether trigram search can be used
+     * search.mode=auto checks for the pg_trgm extension, trigram/basic force a mode
+     */
+    private boolean isTrigramSearchAvailable() {
+        Boolean available = trigramAvailable;
+        if (available != null) {
+            return available;
+        }
+
+        String mode = DatabaseConnection.getProperty("search.mode", "auto");
+        if (mode.equalsIgnoreCase("trigram")) {
+            available = true;
+        } else if (mode.equalsIgnoreCase("basic")) {
+            available = false;
+        } else {
+            String sql = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')";
+            try (Connection conn = getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                available = rs.next() && rs.getBoolean(1);
+            } catch (SQLException e) {
+                System.out.println("Could not check for pg_trgm, using basic search: " + e.getMessage());
+                // don't cache - try again on the next search
+                return false;
+            }
+        }
+
+        System.out.println(available
+                ? "Name search: using pg_trgm trigram indexes"
+                : "Name search: pg_trgm not installed, using basic ILIKE search");
+        trigramAvailable = available;
+        return available;
+    }
+
+
+    /**
+     * Retrieves a page of contacts after the given id
+     * Demonstrates keyset pagination: an index seek on the primary key,
+     * so every page costs the same (unlike OFFSET, which scans skipped rows)
+     */
+    @Override
+    public List<Contact> getContactsAfter(int afterId, int limit) {
+        List<Contact> contacts = new ArrayList<>();
+        String sql = "SELECT * FROM contacts WHERE id > ? ORDER BY id ASC LIMIT ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    contacts.add(extractContactFromResultSet(rs));
+                }
             }
         } catch (SQLException e) {
-            System.out.println("Errpr searching contacts " + e.getMessage());
+            System.out.println("Error fetching contacts page: " + e.getMessage());
             e.printStackTrace();
         }
+        return contacts;
+    }
+
+
+    /**
+     * Retrieves a page of search results after the given (first_name, id)
+     * The row-value comparison "(first_name, id) > (?, ?)" is answered by
+     * seeking idx_contacts_first_name_id instead of skipping earlier rows
+     * Patterns under 3 characters use the plain ILIKE filter (see searchContactByName)
+     */
+    @Override
+    public List<Contact> searchContactsAfter(String name, String afterFirstName, int afterId, int limit) {
+        List<Contact> contacts = new ArrayList<>();
+        boolean firstPage = afterFirstName == null;
+
+        boolean trigram = useTrigramSearch(name);
 
+        String sql = "SELECT * FROM contacts WHERE " + nameFilter(trigram)
+                + (firstPage ? "" : " AND (first_name, id) > (?, ?)")
+                + " ORDER BY first_name ASC, id ASC LIMIT ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = bindNameFilter(pstmt, 1, name, trigram);
+            if (!firstPage) {
+                pstmt.setString(index++, afterFirstName);
+                pstmt.setInt(index++, afterId);
+            }
+            pstmt.setInt(index, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    contacts.add(extractContactFromResultSet(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error searching contacts page: " + e.getMessage());
+            e.printStackTrace();
+        }
         return contacts;
     }
 
 
+    /**
+     * Updates a contact and returns the updated row
+     * A missing id simply updates nothing, so no existence check
+     * (and no second round trip) is needed beforehand
+     */
     @Override
-    public boolean updateContact(Contact contact) {
+    public Contact updateContact(Contact contact) {
 
-        String sql = "UPDATE contacts SET first_name = ?, last_name = ?, phone = ?,address = ?,updated_at = CURRENT_TIMESTAMP WHERE ID = ?";
+        String sql = "UPDATE contacts SET first_name = ?, last_name = ?, phone = ?, email = ?, address = ?,"
+                + " updated_at = CURRENT_TIMESTAMP WHERE id = ? RETURNING *";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, contact.getFirstName());
@@ -172,12 +992,14 @@ public class ContactDAOImpl implements ContactDAO {
             pstmt.setString(5, contact.getAddress());
             pstmt.setInt(6, contact.getId());
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                // no row returned = no contact with that id
+                return rs.next() ? extractContactFromResultSet(rs) : null;
+            }
         } catch (SQLException E) {
             System.err.println("Error updating the contact :" + E.getMessage());
             E.printStackTrace();
-            return false;
+            return null;
         }
     }
 
@@ -185,22 +1007,128 @@ public class ContactDAOImpl implements ContactDAO {
     /**
      * Deletes contact by ID
      * Demonstrates DELETE query
+     * RETURNING * reports what was deleted, or nothing if the id did not exist
      */
     @Override
-    public boolean deleteContact(int id) {
-        String sql = "DELETE FROM contacts WHERE id = ?";
+    public Contact deleteContact(int id) {
+        String sql = "DELETE FROM contacts WHERE id = ? RETURNING *";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? extractContactFromResultSet(rs) : null;
+            }
 
         } catch (SQLException E) {
             System.err.println("Error deleting the contact :" + E.getMessage());
             E.printStackTrace();
-            return false;
+            return null;
+        }
+    }
+
+    /**
+     * Updates many contacts in one transaction
+     * <p>
+     * Interview Point: same batching as addContacts - one round trip per batchSize
+     * rows and one commit. The update count of each statement tells whether the
+     * id existed, so there is no lookup before the write.
+     */
+    @Override
+    public BatchResult updateContacts(List<Contact> contacts) {
+        String sql = "UPDATE contacts SET first_name = ?, last_name = ?, phone = ?, email = ?, address = ?,"
+                + " updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+        return executeKeyedBatch(sql, contacts, (pstmt, contact) -> {
+            bindInsertParameters(pstmt, contact);
+            pstmt.setInt(6, contact.getId());
+        }, Contact::getId);
+    }
+
+    /**
+     * Deletes many contacts in one transaction
+     */
+    @Override
+    public BatchResult deleteContacts(List<Integer> ids) {
+        return executeKeyedBatch("DELETE FROM contacts WHERE id = ?", ids,
+                (pstmt, id) -> pstmt.setInt(1, id), Integer::intValue);
+    }
+
+    /**
+     * Binds one row of a keyed batch statement
+     */
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
+
+    /**
+     * Runs a statement that touches at most one row per id as a JDBC batch
+     * Rows with update count 0 are reported as not found; a rejected batch is
+     * rolled back to its savepoint and replayed row by row, like addContacts
+     */
+    private <T> BatchResult executeKeyedBatch(String sql, List<T> rows, RowBinder<T> binder, ToIntFunction<T> idOf) {
+        BatchResult result = new BatchResult(rows.size());
+        long start = System.nanoTime();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, rows.size());
+                    Savepoint savepoint = conn.setSavepoint();
+
+                    try {
+                        for (int i = from; i < to; i++) {
+                            binder.bind(pstmt, rows.get(i));
+                            pstmt.addBatch();
+                        }
+                        int[] counts = pstmt.executeBatch();
+                        for (int i = from; i < to; i++) {
+                            recordKeyedOutcome(result, i, idOf.applyAsInt(rows.get(i)), counts[i - from]);
+                        }
+                        conn.releaseSavepoint(savepoint);
+                    } catch (BatchUpdateException e) {
+                        pstmt.clearBatch();
+                        conn.rollback(savepoint);
+
+                        for (int i = from; i < to; i++) {
+                            Savepoint rowSavepoint = conn.setSavepoint();
+                            try {
+                                binder.bind(pstmt, rows.get(i));
+                                recordKeyedOutcome(result, i, idOf.applyAsInt(rows.get(i)), pstmt.executeUpdate());
+                                conn.releaseSavepoint(rowSavepoint);
+                            } catch (SQLException rowError) {
+                                conn.rollback(rowSavepoint);
+                                result.recordFailure(i, rowError.getMessage());
+                            }
+                        }
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error running batch: " + e.getMessage());
+            // transaction rolled back - nothing from this batch was stored
+            for (int i = 0; i < rows.size(); i++) {
+                result.recordFailure(i, "Batch rolled back: " + e.getMessage());
+            }
+        }
+
+        result.setElapsedNanos(System.nanoTime() - start);
+        return result;
+    }
+
+    private static void recordKeyedOutcome(BatchResult result, int index, int id, int updateCount) {
+        if (updateCount == 0) {
+            result.recordFailure(index, "Contact not found");
+        } else {
+            result.recordSuccess(index, id);
         }
     }
 
@@ -213,7 +1141,7 @@ public class ContactDAOImpl implements ContactDAO {
     public int getContactCount() {
         String sql = "SELECT COUNT(*) FROM contacts";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -225,7 +1153,32 @@ public class ContactDAOImpl implements ContactDAO {
             System.err.println("Error counting the contact :" + e.getMessage());
             e.printStackTrace();
         }
-        return 0;
+        // -1 tells callers the count is unknown (0 would look like an empty table)
+        return -1;
+    }
+
+
+    /**
+     * Estimates the contact count from planner statistics
+     * reltuples is maintained by VACUUM / ANALYZE (and autovacuum),
+     * so reading it is a single catalog lookup instead of a full scan
+     */
+    @Override
+    public long estimateContactCount() {
+        String sql = "SELECT reltuples::bigint FROM pg_class WHERE oid = 'contacts'::regclass";
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                // -1 means the table has never been analyzed
+                return Math.max(-1, rs.getLong(1));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error estimating the contact count :" + e.getMessage());
+        }
+        return -1;
     }
 
 
@@ -240,6 +1193,7 @@ public class ContactDAOImpl implements ContactDAO {
      * Reduces code duplication
      * <p>
      * Interview Point: This demonstrates DRY (Don't Repeat Yourself) principle
+     * Static and package-private so the benchmarks module can measure it without a database
      *
      * @param rs ResultSet positioned at a row
      * @return Contact object with data from current row
@@ -247,7 +1201,10 @@ public class ContactDAOImpl implements ContactDAO {
      */
 
 
-    private Contact extractContactFromResultSet(ResultSet rs) throws SQLException {
+    static Contact extractContactFromResultSet(ResultSet rs) throws SQLException {
+        // per-row timing only for traced requests; adds to the "map" phase total
+        RequestTrace trace = RequestTrace.current();
+        long start = trace == null ? 0 : System.nanoTime();
 
         Contact contact = new Contact();
         // Extract data from ResultSet columns
@@ -261,7 +1218,11 @@ public class ContactDAOImpl implements ContactDAO {
         contact.setAddress(rs.getString("address"));
         contact.setCreatedAt(rs.getTimestamp("created_at"));
         contact.setUpdateAt(rs.getTimestamp("updated_at"));
+        contact.setVersion(rs.getLong("version"));
 
+        if (trace != null) {
+            trace.addToTotal(RequestTrace.ROW_MAPPING, System.nanoTime() - start);
+        }
         return contact;
     }
 
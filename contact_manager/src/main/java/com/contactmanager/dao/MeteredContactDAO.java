@@ -0,0 +1,251 @@
+package com.contactmanager.dao;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.metrics.OperationTimer;
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.model.BatchResult;
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.UpsertResult;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Records the latency of every call to another ContactDAO (Decorator pattern)
+ * <p>
+ * Interview Point: like CachingContactDAO, this adds behaviour without touching
+ * ContactDAOImpl. Placed directly around ContactDAOImpl (inside the cache) it
+ * measures database work only - cache hits never reach it:
+ * new CachingContactDAO(new MeteredContactDAO(new ContactDAOImpl()), ...)
+ * <p>
+ * Exported as dao_call_duration_seconds{operation="getContactById"} etc.
+ */
+public class MeteredContactDAO implements ContactDAO {
+
+    private final ContactDAO delegate;
+    private final OperationTimer timer;
+
+    public MeteredContactDAO(ContactDAO delegate) {
+        this(delegate, MetricsRegistry.getDefault());
+    }
+
+    public MeteredContactDAO(ContactDAO delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.timer = new OperationTimer(registry, "dao_call_duration_seconds",
+                "Time spent in ContactDAO calls, including connection acquisition", RequestTrace.DAO);
+    }
+
+    @Override
+    public Contact addContact(Contact contact) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addContact(contact);
+        } finally {
+            timer.record("addContact", start);
+        }
+    }
+
+    @Override
+    public BatchResult addContacts(List<Contact> contacts) {
+        long start = System.nanoTime();
+        try {
+            return delegate.addContacts(contacts);
+        } finally {
+            timer.record("addContacts", start);
+        }
+    }
+
+    @Override
+    public UpsertResult upsertContact(Contact contact, UpsertKey key) {
+        long start = System.nanoTime();
+        try {
+            return delegate.upsertContact(contact, key);
+        } finally {
+            timer.record("upsertContact", start);
+        }
+    }
+
+    @Override
+    public List<UpsertResult> upsertContacts(List<Contact> contacts, UpsertKey key) {
+        long start = System.nanoTime();
+        try {
+            return delegate.upsertContacts(contacts, key);
+        } finally {
+            timer.record("upsertContacts", start);
+        }
+    }
+
+    @Override
+    public long copyContacts(Iterator<Contact> contacts, Consumer<Contact> inserted) {
+        long start = System.nanoTime();
+        try {
+            return delegate.copyContacts(contacts, inserted);
+        } finally {
+            timer.record("copyContacts", start);
+        }
+    }
+
+    @Override
+    public Set<String> findExistingPhones(Collection<String> phoneDigits) {
+        long start = System.nanoTime();
+        try {
+            return delegate.findExistingPhones(phoneDigits);
+        } finally {
+            timer.record("findExistingPhones", start);
+        }
+    }
+
+    @Override
+    public Contact getContactById(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getContactById(id);
+        } finally {
+            timer.record("getContactById", start);
+        }
+    }
+
+    @Override
+    public List<Contact> getAllContacts() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAllContacts();
+        } finally {
+            timer.record("getAllContacts", start);
+        }
+    }
+
+    /**
+     * Timed until the stream is closed, i.e. the whole cursor read
+     */
+    @Override
+    public Stream<Contact> streamAllContacts() {
+        long start = System.nanoTime();
+        return delegate.streamAllContacts().onClose(() -> timer.record("streamAllContacts", start));
+    }
+
+    @Override
+    public List<Contact> getContactsAfter(int afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getContactsAfter(afterId, limit);
+        } finally {
+            timer.record("getContactsAfter", start);
+        }
+    }
+
+    @Override
+    public List<Contact> searchContactsAfter(String name, String afterFirstName, int afterId, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.searchContactsAfter(name, afterFirstName, afterId, limit);
+        } finally {
+            timer.record("searchContactsAfter", start);
+        }
+    }
+
+    @Override
+    public List<Contact> searchContactByName(String name) {
+        long start = System.nanoTime();
+        try {
+            return delegate.searchContactByName(name);
+        } finally {
+            timer.record("searchContactByName", start);
+        }
+    }
+
+    @Override
+    public List<Contact> searchContactByName(String name, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.searchContactByName(name, limit);
+        } finally {
+            timer.record("searchContactByName", start);
+        }
+    }
+
+    @Override
+    public Contact updateContact(Contact contact) {
+        long start = System.nanoTime();
+        try {
+            return delegate.updateContact(contact);
+        } finally {
+            timer.record("updateContact", start);
+        }
+    }
+
+    @Override
+    public Contact deleteContact(int id) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deleteContact(id);
+        } finally {
+            timer.record("deleteContact", start);
+        }
+    }
+
+    @Override
+    public BatchResult updateContacts(List<Contact> contacts) {
+        long start = System.nanoTime();
+        try {
+            return delegate.updateContacts(contacts);
+        } finally {
+            timer.record("updateContacts", start);
+        }
+    }
+
+    @Override
+    public BatchResult deleteContacts(List<Integer> ids) {
+        long start = System.nanoTime();
+        try {
+            return delegate.deleteContacts(ids);
+        } finally {
+            timer.record("deleteContacts", start);
+        }
+    }
+
+    @Override
+    public int getContactCount() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getContactCount();
+        } finally {
+            timer.record("getContactCount", start);
+        }
+    }
+
+    @Override
+    public long estimateContactCount() {
+        long start = System.nanoTime();
+        try {
+            return delegate.estimateContactCount();
+        } finally {
+            timer.record("estimateContactCount", start);
+        }
+    }
+
+    @Override
+    public long getChangeHorizon() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getChangeHorizon();
+        } finally {
+            timer.record("getChangeHorizon", start);
+        }
+    }
+
+    @Override
+    public List<ContactChange> getChangesSince(long afterVersion, int afterId, long beforeVersion, int limit) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getChangesSince(afterVersion, afterId, beforeVersion, limit);
+        } finally {
+            timer.record("getChangesSince", start);
+        }
+    }
+}
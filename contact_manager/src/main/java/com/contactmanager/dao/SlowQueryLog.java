@@ -0,0 +1,404 @@
+package com.contactmanager.dao;
+
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.util.ConnectionPool;
+import com.contactmanager.util.DatabaseConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs statements slower than a threshold, optionally with their query plan
+ * <p>
+ * Interview Point: a regression such as a search that stops using its index shows
+ * up as a few slow statements long before users complain. Each connection the DAO
+ * borrows is wrapped so every statement is timed; a slow one is logged with
+ * - its SQL and the shape of its parameters (types only - values may be personal data)
+ * - rows returned or affected, and how long borrowing the connection took
+ * - optionally the plan: EXPLAIN (ANALYZE, BUFFERS) re-runs it with the same parameters
+ * <p>
+ * The log protects throughput: at most slowlog.maxPerMinute entries are written
+ * (the rest are counted), and at most one EXPLAIN runs per slowlog.explainIntervalSeconds,
+ * on a background thread, inside a rolled-back transaction with a statement timeout.
+ * Only SELECTs get ANALYZE (which executes the statement); writes get a plain EXPLAIN.
+ * <p>
+ * Fast statements pay one reflective call per JDBC method; result sets are only
+ * wrapped (to count rows) once a statement has already been slow.
+ */
+public class SlowQueryLog {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdNanos;
+    private final int maxPerMinute;
+    private final boolean explain;
+    private final long explainIntervalNanos;
+    private final long explainTimeoutMs;
+
+    // log rate limit: entries written in the current one-minute window
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    private final AtomicLong nextExplainAt = new AtomicLong(System.nanoTime());
+    private volatile ExecutorService explainer;
+
+    private final LongAdder slowStatements = MetricsRegistry.getDefault().counter(
+            "db_slow_statements_total", "Statements slower than slowlog.thresholdMs");
+
+    /**
+     * @param thresholdMs             statements taking at least this long are slow (0 = log off)
+     * @param maxPerMinute            log entries written per minute at most
+     * @param explain                 capture the plan of slow statements
+     * @param explainIntervalSeconds  minimum time between two captured plans
+     * @param explainTimeoutMs        statement_timeout for the EXPLAIN itself
+     */
+    public SlowQueryLog(long thresholdMs, int maxPerMinute, boolean explain,
+                        long explainIntervalSeconds, long explainTimeoutMs) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.maxPerMinute = maxPerMinute;
+        this.explain = explain;
+        this.explainIntervalNanos = TimeUnit.SECONDS.toNanos(explainIntervalSeconds);
+        this.explainTimeoutMs = explainTimeoutMs;
+    }
+
+    /**
+     * Creates the log from slowlog.* settings in database.properties
+     */
+    public static SlowQueryLog fromProperties() {
+        return new SlowQueryLog(
+                DatabaseConnection.getLongProperty("slowlog.thresholdMs", 200),
+                DatabaseConnection.getIntProperty("slowlog.maxPerMinute", 20),
+                DatabaseConnection.getBooleanProperty("slowlog.explain", false),
+                DatabaseConnection.getLongProperty("slowlog.explainIntervalSeconds", 60),
+                DatabaseConnection.getLongProperty("slowlog.explainTimeoutMs", 5000));
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos > 0;
+    }
+
+    /**
+     * Wraps connection so its statements are timed; returns it unchanged when the log is off
+     */
+    public Connection monitor(Connection connection) {
+        if (!isEnabled()) {
+            return connection;
+        }
+        long borrowWait = ConnectionPool.getBorrowWaitNanos(connection);
+        return (Connection) Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        // prepareStatement(sql, ...) carries the SQL; createStatement() gets it per execute
+                        String sql = method.getName().startsWith("prepare") ? (String) args[0] : null;
+                        return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(),
+                                new Class<?>[]{method.getReturnType()},
+                                new StatementHandler((Statement) result, sql, borrowWait));
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Times execute* calls and remembers bound parameters, for one statement
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final long borrowWaitNanos;
+
+        // parameter setter name and arguments by index (1-based, slot 0 unused)
+        private final List<Object[]> bindings = new ArrayList<>();
+        private final List<Method> setters = new ArrayList<>();
+        private int batchRows;
+
+        // a slow query whose rows are still being read
+        private SlowStatement pending;
+
+        private StatementHandler(Statement target, String preparedSql, long borrowWaitNanos) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.borrowWaitNanos = borrowWaitNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], method, args);
+            } else if (name.equals("clearParameters")) {
+                bindings.clear();
+                setters.clear();
+            } else if (name.equals("addBatch") && args == null) {
+                batchRows++;
+            } else if (name.equals("close")) {
+                finishPending();
+            }
+            return SlowQueryLog.invoke(target, method, args);
+        }
+
+        private void bind(int index, Method setter, Object[] args) {
+            while (bindings.size() <= index) {
+                bindings.add(null);
+                setters.add(null);
+            }
+            bindings.set(index, args);
+            setters.set(index, setter);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            finishPending();
+            long start = System.nanoTime();
+            Object result = SlowQueryLog.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed < thresholdNanos) {
+                batchRows = 0;
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            SlowStatement slow = new SlowStatement(sql, shape(), elapsed, borrowWaitNanos, batchRows,
+                    preparedSql != null ? snapshotBindings() : null);
+            batchRows = 0;
+
+            if (result instanceof ResultSet) {
+                // report once the rows have been read, so the entry has a row count
+                pending = slow;
+                ResultSet rows = (ResultSet) result;
+                return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                        (proxy, rsMethod, rsArgs) -> {
+                            Object value = SlowQueryLog.invoke(rows, rsMethod, rsArgs);
+                            if (rsMethod.getName().equals("next") && Boolean.TRUE.equals(value)) {
+                                slow.rows++;
+                            } else if (rsMethod.getName().equals("close")) {
+                                finishPending();
+                            }
+                            return value;
+                        });
+            }
+            slow.rows = rowsAffected(result);
+            report(slow);
+            return result;
+        }
+
+        private void finishPending() {
+            if (pending != null) {
+                SlowStatement slow = pending;
+                pending = null;
+                report(slow);
+            }
+        }
+
+        private String shape() {
+            List<String> types = new ArrayList<>();
+            for (int i = 1; i < setters.size(); i++) {
+                types.add(setters.get(i) == null ? "?" : setters.get(i).getName().substring(3));
+            }
+            return types.toString();
+        }
+
+        private Binding[] snapshotBindings() {
+            Binding[] copy = new Binding[Math.max(0, setters.size() - 1)];
+            for (int i = 1; i < setters.size(); i++) {
+                copy[i - 1] = setters.get(i) == null ? null : new Binding(setters.get(i), bindings.get(i));
+            }
+            return copy;
+        }
+
+        private long rowsAffected(Object result) throws SQLException {
+            if (result instanceof int[]) {
+                long total = 0;
+                for (int count : (int[]) result) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            return target.getUpdateCount();
+        }
+    }
+
+    /**
+     * A setXxx(index, value...) call to replay on the EXPLAIN statement
+     */
+    private static final class Binding {
+        private final Method setter;
+        private final Object[] args;
+
+        private Binding(Method setter, Object[] args) {
+            this.setter = setter;
+            this.args = args.clone();
+        }
+    }
+
+    private static final class SlowStatement {
+        private final String sql;
+        private final String parameterShape;
+        private final long elapsedNanos;
+        private final long borrowWaitNanos;
+        private final int batchRows;
+        private final Binding[] bindings;
+        private long rows;
+
+        private SlowStatement(String sql, String parameterShape, long elapsedNanos, long borrowWaitNanos,
+                              int batchRows, Binding[] bindings) {
+            this.sql = sql;
+            this.parameterShape = parameterShape;
+            this.elapsedNanos = elapsedNanos;
+            this.borrowWaitNanos = borrowWaitNanos;
+            this.batchRows = batchRows;
+            this.bindings = bindings;
+        }
+    }
+
+    private void report(SlowStatement slow) {
+        slowStatements.increment();
+        if (!tryAcquireLogSlot()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+
+        String sql = normalize(slow.sql);
+        StringBuilder entry = new StringBuilder(256)
+                .append(String.format(Locale.ROOT, "SLOW SQL %.1f ms (threshold %d ms) rows=%d",
+                        slow.elapsedNanos / 1e6, TimeUnit.NANOSECONDS.toMillis(thresholdNanos), slow.rows));
+        if (slow.batchRows > 0) {
+            entry.append(" batch=").append(slow.batchRows);
+        }
+        if (slow.borrowWaitNanos >= 0) {
+            entry.append(String.format(Locale.ROOT, " connWait=%.1f ms", slow.borrowWaitNanos / 1e6));
+        }
+        entry.append(" params=").append(slow.parameterShape);
+        int dropped = suppressed.getAndSet(0);
+        if (dropped > 0) {
+            entry.append(" (").append(dropped).append(" more slow statements not logged)");
+        }
+        entry.append("\n  ").append(sql);
+        System.err.println(entry);
+
+        if (explain && slow.sql != null && tryAcquireExplainSlot()) {
+            explainLater(slow);
+        }
+    }
+
+    private boolean tryAcquireLogSlot() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= TimeUnit.MINUTES.toNanos(1) && windowStart.compareAndSet(start, now)) {
+            loggedInWindow.set(0);
+        }
+        return loggedInWindow.incrementAndGet() <= maxPerMinute;
+    }
+
+    private boolean tryAcquireExplainSlot() {
+        long now = System.nanoTime();
+        long next = nextExplainAt.get();
+        return now - next >= 0 && nextExplainAt.compareAndSet(next, now + explainIntervalNanos);
+    }
+
+    private void explainLater(SlowStatement slow) {
+        try {
+            explainer().execute(() -> System.err.println("SLOW SQL plan for: " + normalize(slow.sql)
+                    + "\n" + captureExplain(slow)));
+        } catch (RejectedExecutionException e) {
+            // an EXPLAIN is still running - skip this one
+        }
+    }
+
+    // one background thread, no queue beyond a single waiting plan
+    private ExecutorService explainer() {
+        ExecutorService current = explainer;
+        if (current == null) {
+            synchronized (this) {
+                if (explainer == null) {
+                    explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                            new ArrayBlockingQueue<>(1), task -> {
+                                Thread thread = new Thread(task, "slow-query-explain");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+                }
+                current = explainer;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Runs EXPLAIN for the statement with its original parameters and rolls back
+     * Plain connection from the pool - not monitored, so it can never report itself
+     */
+    private String captureExplain(SlowStatement slow) {
+        boolean select = slow.sql.trim().toLowerCase(Locale.ROOT).startsWith("select");
+        String explainSql = (select ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + slow.sql;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement timeout = conn.createStatement()) {
+                    timeout.execute("SET LOCAL statement_timeout = " + explainTimeoutMs);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (PreparedStatement pstmt = conn.prepareStatement(explainSql)) {
+                    if (slow.bindings != null) {
+                        for (Binding binding : slow.bindings) {
+                            if (binding != null) {
+                                binding.setter.invoke(pstmt, binding.args);
+                            }
+                        }
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            plan.append("    ").append(rs.getString(1)).append('\n');
+                        }
+                    }
+                }
+                return plan.toString();
+            } finally {
+                conn.rollback();
+            }
+        } catch (Exception e) {
+            return "    (plan unavailable: " + e.getMessage() + ")";
+        }
+    }
+
+    private static String normalize(String sql) {
+        if (sql == null) {
+            return "(unknown statement)";
+        }
+        String oneLine = sql.replaceAll("\\s+", " ").trim();
+        return oneLine.length() > MAX_SQL_LENGTH ? oneLine.substring(0, MAX_SQL_LENGTH) + "..." : oneLine;
+    }
+}
@@ -0,0 +1,154 @@
+package com.contactmanager.loadtest;
+
+import com.contactmanager.metrics.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of one endpoint (or of all of them) during a load test
+ * <p>
+ * Two latencies are kept per request:
+ * - latency: from the moment the request was scheduled to be sent until the
+ *   response arrived - what a user arriving at that moment would have waited
+ * - service time: from the moment it was actually sent
+ * When the generator keeps up they are the same. When it cannot (all connections
+ * busy, a GC pause in the generator) latency keeps growing while service time
+ * looks fine - reporting only service time is the coordinated-omission mistake.
+ */
+public class EndpointStats {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    // no HTTP response: connection refused, timeout, ...
+    private final LongAdder failed = new LongAdder();
+    // never sent: too many requests already in flight
+    private final LongAdder dropped = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordResponse(int status, long latencyNanos, long serviceTimeNanos) {
+        latency.record(latencyNanos);
+        serviceTime.record(serviceTimeNanos);
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    public void recordFailure() {
+        failed.increment();
+    }
+
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    public long getResponses() {
+        return latency.getCount();
+    }
+
+    /**
+     * Responses with a 5xx status, plus requests that got no response or were never sent
+     */
+    public long getErrors() {
+        long errors = failed.sum() + dropped.sum();
+        for (Map.Entry<Integer, LongAdder> status : statuses.entrySet()) {
+            if (status.getKey() >= 500) {
+                errors += status.getValue().sum();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * One line of the text report; header() gives the column names
+     */
+    public String toText(double seconds) {
+        LatencyHistogram.Snapshot latencies = latency.snapshot();
+        LatencyHistogram.Snapshot serviceTimes = serviceTime.snapshot();
+        return String.format(Locale.ROOT, "%-8s %9d %9.1f %7d %8s %8s %8s %8s %8s %8s   %8s %8s  %s",
+                name, latencies.getCount(), latencies.getCount() / seconds, getErrors(),
+                millis(latencies.getMeanNanos()),
+                millis(latencies.getValueAtQuantile(0.5)), millis(latencies.getValueAtQuantile(0.9)),
+                millis(latencies.getValueAtQuantile(0.99)), millis(latencies.getValueAtQuantile(0.999)),
+                millis(latencies.getMaxNanos()),
+                millis(serviceTimes.getValueAtQuantile(0.5)), millis(serviceTimes.getValueAtQuantile(0.99)),
+                statusSummary());
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-8s %9s %9s %7s %8s %8s %8s %8s %8s %8s   %8s %8s  %s",
+                "endpoint", "responses", "req/s", "errors", "mean", "p50", "p90", "p99", "p99.9", "max",
+                "svc p50", "svc p99", "statuses");
+    }
+
+    private String statusSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Map.Entry<Integer, Long> status : statusCounts().entrySet()) {
+            summary.append(status.getKey()).append('=').append(status.getValue()).append(' ');
+        }
+        if (failed.sum() > 0) {
+            summary.append("failed=").append(failed.sum()).append(' ');
+        }
+        if (dropped.sum() > 0) {
+            summary.append("dropped=").append(dropped.sum());
+        }
+        return summary.toString().trim();
+    }
+
+    private Map<Integer, Long> statusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Report entry for the JSON output; latencies in milliseconds
+     */
+    public Map<String, Object> toJson(double seconds) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("responses", latency.getCount());
+        json.put("throughputPerSecond", round(latency.getCount() / seconds));
+        json.put("errors", getErrors());
+        json.put("failed", failed.sum());
+        json.put("dropped", dropped.sum());
+        Map<String, Long> statusJson = new LinkedHashMap<>();
+        statusCounts().forEach((status, count) -> statusJson.put(String.valueOf(status), count));
+        json.put("statuses", statusJson);
+        json.put("latencyMs", percentiles(latency.snapshot()));
+        json.put("serviceTimeMs", percentiles(serviceTime.snapshot()));
+        return json;
+    }
+
+    private static Map<String, Double> percentiles(LatencyHistogram.Snapshot snapshot) {
+        Map<String, Double> json = new LinkedHashMap<>();
+        json.put("mean", round(snapshot.getMeanNanos() / 1e6));
+        for (double quantile : QUANTILES) {
+            json.put("p" + String.valueOf(quantile * 100).replaceAll("\\.0$", ""),
+                    round(snapshot.getValueAtQuantile(quantile) / 1e6));
+        }
+        json.put("max", round(snapshot.getMaxNanos() / 1e6));
+        return json;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    private static String millis(double nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
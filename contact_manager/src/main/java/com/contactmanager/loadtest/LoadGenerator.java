@@ -0,0 +1,401 @@
+package com.contactmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load generator for ApiServer - a mixed workload at a constant arrival rate
+ * Start the API server, then:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.contactmanager.loadtest.LoadGenerator \
+ *       -Dexec.args="--rate 500 --duration 60 --json load-report.json"
+ * <p>
+ * Options (defaults in brackets):
+ *   --url            server base URL [http://localhost:7000]
+ *   --rate           requests per second, all endpoints together [100]
+ *   --duration       measured seconds [30]
+ *   --warmup         seconds of load before measuring, not reported [10]
+ *   --mix            endpoint weights [get=60,search=20,create=10,update=5,delete=5]
+ *   --seed           contacts created before the run for get/update/delete to use [200]
+ *   --timeout        seconds before a request counts as failed [10]
+ *   --max-in-flight  outstanding requests; more are dropped and counted as errors [10000]
+ *   --json           also write the report as JSON to this file
+ * The run creates contacts (phone 9xxxx.., email load*@example.com) and deletes some of them.
+ * Codec and service costs without HTTP or a database are measured by the JMH suite in
+ * benchmarks/ instead (JsonBenchmark for the JSON/CBOR mappers).
+ * <p>
+ * Interview Point: a closed-model tool (N threads, each sending its next request
+ * when the last one returns) slows down together with the server - when a request
+ * stalls, the requests that should have been sent meanwhile are never sent, and the
+ * stall is reported once instead of for every user it delayed (coordinated omission).
+ * Here requests are scheduled at fixed times (open model, like independent users)
+ * and sent asynchronously, and latency is measured from the scheduled time. A server
+ * that cannot keep up therefore shows growing latency instead of a quietly lower rate.
+ */
+public class LoadGenerator {
+
+    /**
+     * The endpoints in the mix
+     */
+    enum Operation {
+        GET, SEARCH, CREATE, UPDATE, DELETE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String[] FIRST_NAMES =
+            {"Aarav", "Alice", "Bob", "Chen", "Diya", "Elena", "Farhan", "Grace", "Hiro", "Isha"};
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final double rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final Map<Operation, Integer> mix;
+    private final int seedContacts;
+    private final Duration timeout;
+    private final int maxInFlight;
+
+    private final HttpClient client;
+    private final ContactIds ids = new ContactIds();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // phone numbers and emails must be unique: 9 + 4-digit run tag + 6-digit sequence
+    private final int runTag = ThreadLocalRandom.current().nextInt(1000, 10000);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final EndpointStats total = new EndpointStats("all");
+
+    public LoadGenerator(String baseUrl, double rate, int durationSeconds, int warmupSeconds,
+                         Map<Operation, Integer> mix, int seedContacts, Duration timeout, int maxInFlight) {
+        this.baseUrl = baseUrl.replaceAll("/+$", "");
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.mix = mix;
+        this.seedContacts = seedContacts;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.label()));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        LoadGenerator generator = new LoadGenerator(
+                options.getOrDefault("url", "http://localhost:7000"),
+                Double.parseDouble(options.getOrDefault("rate", "100")),
+                Integer.parseInt(options.getOrDefault("duration", "30")),
+                Integer.parseInt(options.getOrDefault("warmup", "10")),
+                parseMix(options.getOrDefault("mix", "get=60,search=20,create=10,update=5,delete=5")),
+                Integer.parseInt(options.getOrDefault("seed", "200")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "10"))),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "10000")));
+
+        double seconds = generator.run();
+
+        System.out.println(generator.toText(seconds));
+        String jsonFile = options.get("json");
+        if (jsonFile != null) {
+            MAPPER.writer(SerializationFeature.INDENT_OUTPUT).writeValue(new File(jsonFile), generator.toJson(seconds));
+            System.out.println("JSON report written to " + jsonFile);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * Seeds contacts, runs warmup and measurement, and waits for the last responses
+     *
+     * @return length of the measured period in seconds
+     */
+    public double run() {
+        System.out.println("===========================================");
+        System.out.printf(Locale.ROOT, "    LOAD TEST %s - %.0f req/s for %ds (+%ds warmup)%n",
+                baseUrl, rate, durationSeconds, warmupSeconds);
+        System.out.println("    mix: " + mix);
+        System.out.println("===========================================\n");
+
+        seed();
+        System.out.println("Seeded " + ids.size() + " contacts");
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        // request i is due at start + i * interval, whatever happened to request i-1;
+        // if this thread falls behind it sends the overdue requests at once, and their
+        // latency still counts from when they were due
+        long scheduled = 0;
+        for (long due = start; due < end; due = start + (long) (++scheduled * intervalNanos)) {
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                while (System.nanoTime() < due) {
+                    Thread.onSpinWait();
+                }
+            }
+            send(pickOperation(), due, due >= measureFrom);
+        }
+
+        long drainUntil = System.nanoTime() + timeout.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return durationSeconds;
+    }
+
+    private Operation pickOperation() {
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            pick -= weight.getValue();
+            if (pick < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    /**
+     * Sends one request without waiting for it
+     *
+     * @param dueNanos when the request was scheduled (System.nanoTime())
+     * @param measured whether it counts towards the report (false during warmup)
+     */
+    private void send(Operation operation, long dueNanos, boolean measured) {
+        // get/update/delete need an existing contact; with none left, create one instead
+        int id = 0;
+        if (operation != Operation.CREATE && operation != Operation.SEARCH) {
+            id = operation == Operation.DELETE ? ids.removeRandom() : ids.random();
+            if (id == 0) {
+                operation = Operation.CREATE;
+            }
+        }
+
+        EndpointStats endpoint = stats.get(operation);
+        if (inFlight.get() >= maxInFlight) {
+            if (measured) {
+                endpoint.recordDropped();
+                total.recordDropped();
+            }
+            if (operation == Operation.DELETE) {
+                ids.add(id);
+            }
+            return;
+        }
+
+        Operation sent = operation;
+        inFlight.incrementAndGet();
+        long sentAt = System.nanoTime();
+        client.sendAsync(request(operation, id), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    long now = System.nanoTime();
+                    if (error == null && sent == Operation.CREATE && response.statusCode() == 201) {
+                        ids.add(createdId(response.body()));
+                    }
+                    if (!measured) {
+                        return;
+                    }
+                    if (error != null) {
+                        endpoint.recordFailure();
+                        total.recordFailure();
+                    } else {
+                        endpoint.recordResponse(response.statusCode(), now - dueNanos, now - sentAt);
+                        total.recordResponse(response.statusCode(), now - dueNanos, now - sentAt);
+                    }
+                });
+    }
+
+    private HttpRequest request(Operation operation, int id) {
+        String contacts = baseUrl + "/api/contacts";
+        HttpRequest.Builder builder = HttpRequest.newBuilder().timeout(timeout);
+        switch (operation) {
+            case GET:
+                return builder.uri(URI.create(contacts + "/" + id)).GET().build();
+            case SEARCH:
+                String name = FIRST_NAMES[ThreadLocalRandom.current().nextInt(FIRST_NAMES.length)];
+                return builder.uri(URI.create(contacts + "/search?name=" + name.substring(0, 3).toLowerCase(Locale.ROOT)))
+                        .GET().build();
+            case CREATE:
+                return builder.uri(URI.create(contacts)).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(newContactJson(0))).build();
+            case UPDATE:
+                return builder.uri(URI.create(contacts + "/" + id)).header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(newContactJson(id))).build();
+            case DELETE:
+                return builder.uri(URI.create(contacts + "/" + id)).DELETE().build();
+            default:
+                throw new IllegalArgumentException(operation.name());
+        }
+    }
+
+    private String newContactJson(int id) {
+        long n = sequence.incrementAndGet() % 1_000_000;
+        String firstName = FIRST_NAMES[(int) (n % FIRST_NAMES.length)];
+        ObjectNode contact = MAPPER.createObjectNode();
+        if (id > 0) {
+            contact.put("id", id);
+        }
+        contact.put("firstName", firstName);
+        contact.put("lastName", "Load" + runTag);
+        contact.put("phone", String.format(Locale.ROOT, "9%04d%06d", runTag, n));
+        contact.put("email", String.format(Locale.ROOT, "load%d.%d@example.com", runTag, n));
+        contact.put("address", "House " + n + ", Load Test Street, Delhi, India");
+        return contact.toString();
+    }
+
+    private static int createdId(byte[] body) {
+        try {
+            JsonNode id = MAPPER.readTree(body).get("id");
+            return id == null ? 0 : id.asInt();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Creates the initial contacts, a few requests at a time
+     */
+    private void seed() {
+        List<CompletableFuture<?>> batch = new ArrayList<>();
+        for (int i = 0; i < seedContacts; i++) {
+            batch.add(client.sendAsync(request(Operation.CREATE, 0), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenAccept(response -> {
+                        if (response.statusCode() == 201) {
+                            ids.add(createdId(response.body()));
+                        }
+                    }));
+            if (batch.size() == 32 || i == seedContacts - 1) {
+                try {
+                    CompletableFuture.allOf(batch.toArray(new CompletableFuture<?>[0])).join();
+                } catch (RuntimeException e) {
+                    throw new IllegalStateException("Seeding failed - is the API server running at " + baseUrl + "?", e);
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    public String toText(double seconds) {
+        StringBuilder report = new StringBuilder()
+                .append("\nResults over ").append(durationSeconds).append("s, latency in ms from the scheduled send time")
+                .append(" (svc = from the actual send)\n")
+                .append(EndpointStats.header()).append('\n');
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.getResponses() > 0 || endpoint.getErrors() > 0) {
+                report.append(endpoint.toText(seconds)).append('\n');
+            }
+        }
+        return report.append(total.toText(seconds)).append('\n').toString();
+    }
+
+    public Map<String, Object> toJson(double seconds) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("url", baseUrl);
+        config.put("targetRatePerSecond", rate);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((operation, weight) -> weights.put(operation.label(), weight));
+        config.put("mix", weights);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (EndpointStats endpoint : stats.values()) {
+            endpoints.put(endpoint.getName(), endpoint.toJson(seconds));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", config);
+        json.put("endpoints", endpoints);
+        json.put("total", total.toJson(seconds));
+        return json;
+    }
+
+    /**
+     * Ids of contacts this run created and has not deleted
+     */
+    private static final class ContactIds {
+        private final List<Integer> ids = new ArrayList<>();
+
+        synchronized void add(int id) {
+            if (id > 0) {
+                ids.add(id);
+            }
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+
+        // 0 when empty
+        synchronized int random() {
+            return ids.isEmpty() ? 0 : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        // swap-remove: O(1), order does not matter
+        synchronized int removeRandom() {
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            int id = ids.get(index);
+            ids.set(index, ids.get(ids.size() - 1));
+            ids.remove(ids.size() - 1);
+            return id;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.contactmanager.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HdrHistogram-style)
+ * <p>
+ * Interview Point: storing every sample to sort it later costs memory and time on
+ * the request path. Instead each power-of-two range of nanoseconds is split into
+ * 32 equal sub-buckets, so any recorded value lands in a bucket at most ~3% wider
+ * than the value itself. Recording is one index computation and one atomic
+ * increment - no locks, no allocation - and percentiles are read by walking the
+ * bucket counts.
+ * <p>
+ * Values are kept from process start (like a Prometheus summary without a
+ * sliding window); values above ~18 minutes are counted in the last bucket.
+ */
+public class LatencyHistogram {
+
+    // 2^SUB_BUCKET_BITS sub-buckets per power of two -> relative error <= 1/32
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // largest tracked value: 2^40 ns, about 18 minutes
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKETS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records the time since startNanos (a System.nanoTime() value)
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sumNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Values below 2 * SUB_BUCKETS get one bucket each; above that, the top
+     * SUB_BUCKET_BITS + 1 bits of the value select the bucket
+     */
+    static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    // highest value that falls into bucket index
+    static long bucketUpperBound(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Consistent-enough view for reporting; concurrent recording may make
+     * the percentiles and the count differ by the samples recorded meanwhile
+     */
+    public Snapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts.get(i);
+            total += buckets[i];
+        }
+        return new Snapshot(buckets, total, sumNanos.sum(), maxNanos.get());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Immutable copy of the bucket counts
+     */
+    public static class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] buckets, long count, long sumNanos, long maxNanos) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /**
+         * @param quantile 0..1, e.g. 0.99
+         * @return upper bound of the bucket holding that quantile, in nanoseconds (0 if empty)
+         */
+        public long getValueAtQuantile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        public long getCount() { return count; }
+        public long getSumNanos() { return sumNanos; }
+        public long getMaxNanos() { return maxNanos; }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) sumNanos / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, p50=%.3fms, p99=%.3fms, p999=%.3fms, max=%.3fms",
+                    count, millis(getValueAtQuantile(0.5)), millis(getValueAtQuantile(0.99)),
+                    millis(getValueAtQuantile(0.999)), millis(maxNanos));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.contactmanager.metrics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test class for LatencyHistogram bucketing
+ * No database needed - in this package so it can reach the bucket helpers:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.contactmanager.metrics.LatencyHistogramTest
+ */
+public class LatencyHistogramTest {
+
+    // same limit as LatencyHistogram.MAX_VALUE
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        System.out.println("===========================================");
+        System.out.println("    TESTING LATENCY HISTOGRAM");
+        System.out.println("===========================================\n");
+
+        // TEST 1: exact buckets end at 63, 64 starts the first shared bucket
+        System.out.println("TEST 1: Bucket boundaries around 64...");
+        check("63 has its own bucket", LatencyHistogram.bucketIndex(63) == 63
+                && LatencyHistogram.bucketUpperBound(63) == 63);
+        check("64 and 65 share bucket 64", LatencyHistogram.bucketIndex(64) == 64
+                && LatencyHistogram.bucketIndex(65) == 64);
+        check("bucket 64 ends at 65", LatencyHistogram.bucketUpperBound(64) == 65);
+        check("66 starts bucket 65", LatencyHistogram.bucketIndex(66) == 65);
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 2: the largest tracked value lands in the last bucket, bigger ones are clamped
+        System.out.println("TEST 2: Largest values...");
+        int last = LatencyHistogram.bucketIndex(MAX_VALUE);
+        check("MAX_VALUE is the upper bound of its bucket", LatencyHistogram.bucketUpperBound(last) == MAX_VALUE);
+        LatencyHistogram clamped = new LatencyHistogram();
+        clamped.record(Long.MAX_VALUE);
+        check("Long.MAX_VALUE is recorded as MAX_VALUE",
+                clamped.snapshot().getValueAtQuantile(1.0) == MAX_VALUE);
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 3: buckets are contiguous - each starts right after the previous one ends
+        System.out.println("TEST 3: Buckets cover every value once...");
+        boolean contiguous = true;
+        for (int i = 0; i < last; i++) {
+            long upper = LatencyHistogram.bucketUpperBound(i);
+            if (LatencyHistogram.bucketIndex(upper) != i || LatencyHistogram.bucketIndex(upper + 1) != i + 1) {
+                System.out.println("  bucket " + i + " ends at " + upper);
+                contiguous = false;
+                break;
+            }
+        }
+        check("no gaps or overlaps up to MAX_VALUE", contiguous);
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 4: reported quantiles never understate, and overstate by at most one bucket (~3%)
+        System.out.println("TEST 4: Quantiles against exact values...");
+        Random random = new Random(42);
+        long[] samples = new long[100_000];
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < samples.length; i++) {
+            // log-uniform from 1 ns to ~1 s, like real latencies
+            samples[i] = (long) Math.exp(random.nextDouble() * Math.log(1e9));
+            histogram.record(samples[i]);
+        }
+        Arrays.sort(samples);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        for (double quantile : new double[]{0.5, 0.9, 0.99, 0.999, 1.0}) {
+            long exact = samples[(int) Math.ceil(quantile * samples.length) - 1];
+            long reported = snapshot.getValueAtQuantile(quantile);
+            check("p" + quantile * 100 + ": " + reported + " ns for exact " + exact + " ns",
+                    reported >= exact && reported <= exact + exact / 32 + 1);
+        }
+
+        System.out.println("\n===========================================");
+        System.out.println(failures == 0 ? "    ALL TESTS PASSED" : "    " + failures + " TEST(S) FAILED");
+        System.out.println("===========================================");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "  PASS: " : "  FAIL: ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
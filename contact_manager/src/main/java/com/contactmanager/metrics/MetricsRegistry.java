@@ -0,0 +1,159 @@
+package com.contactmanager.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Process-wide registry of latency histograms, counters and gauges,
+ * rendered in the Prometheus text exposition format
+ * <p>
+ * Interview Point: metrics are looked up once and then held by the code that
+ * records them, so the hot path is a LongAdder or histogram update - the
+ * registry map is only touched when a new metric is created and when /metrics
+ * is scraped. Gauges are callbacks evaluated at scrape time, which lets existing
+ * statistics (pool, caches, load shedder) be exported without copying them.
+ * <p>
+ * Histograms are exported as summaries: p50, p99 and p999 plus _sum and _count,
+ * in seconds.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    // metric name -> family (type, help, one metric per label set)
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * The registry /metrics exports; the DAO, service and controller record into it
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param labels label name/value pairs, e.g. "operation", "getContactById"
+     * @return the histogram for this name and labels, created on first use
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, "summary").metrics
+                .computeIfAbsent(formatLabels(labels), key -> new LatencyHistogram());
+    }
+
+    /**
+     * @param labels label name/value pairs
+     * @return the counter for this name and labels, created on first use
+     */
+    public LongAdder counter(String name, String help, String... labels) {
+        return (LongAdder) family(name, help, "counter").metrics
+                .computeIfAbsent(formatLabels(labels), key -> new LongAdder());
+    }
+
+    /**
+     * Exports a value some other component already counts, read at scrape time
+     */
+    public void functionCounter(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "counter").metrics.put(formatLabels(labels), value);
+    }
+
+    /**
+     * Exports a value that can go up and down, read at scrape time
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").metrics.put(formatLabels(labels), value);
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format (version 0.0.4)
+     */
+    public String toPrometheusText() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Map.Entry<String, Family> entry : new TreeMap<>(families).entrySet()) {
+            String name = entry.getKey();
+            Family family = entry.getValue();
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+
+            for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+                String labels = metric.getKey();
+                Object value = metric.getValue();
+                if (value instanceof LatencyHistogram) {
+                    writeSummary(out, name, labels, ((LatencyHistogram) value).snapshot());
+                } else if (value instanceof LongAdder) {
+                    writeSample(out, name, labels, ((LongAdder) value).sum());
+                } else {
+                    writeSample(out, name, labels, ((DoubleSupplier) value).getAsDouble());
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, LatencyHistogram.Snapshot snapshot) {
+        for (double quantile : QUANTILES) {
+            String withQuantile = labels.isEmpty()
+                    ? "quantile=\"" + quantile + "\""
+                    : labels + ",quantile=\"" + quantile + "\"";
+            writeSample(out, name, withQuantile, seconds(snapshot.getValueAtQuantile(quantile)));
+        }
+        writeSample(out, name + "_sum", labels, seconds(snapshot.getSumNanos()));
+        writeSample(out, name + "_count", labels, snapshot.getCount());
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    // name="value" pairs, values escaped as the text format requires
+    private static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        List<String> pairs = new ArrayList<>(labels.length / 2);
+        for (int i = 0; i < labels.length; i += 2) {
+            String value = labels[i + 1] == null ? "" : labels[i + 1];
+            pairs.add(labels[i] + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"");
+        }
+        return String.join(",", pairs);
+    }
+
+    private static final class Family {
+        private final String type;
+        private final String help;
+        // label string -> LatencyHistogram, LongAdder or DoubleSupplier
+        private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.contactmanager.metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One latency histogram per operation name, all in the same metric family
+ * e.g. service_operation_duration_seconds{operation="addContact"}
+ * With a trace phase, each call is also added to the current RequestTrace
+ * <p>
+ * Usage:
+ * long start = System.nanoTime();
+ * try { ... } finally { timer.record("addContact", start); }
+ */
+public class OperationTimer {
+
+    private final MetricsRegistry registry;
+    private final String metricName;
+    private final String help;
+    private final String tracePhase;
+
+    // operation -> histogram; saves building the registry key on every call
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public OperationTimer(MetricsRegistry registry, String metricName, String help) {
+        this(registry, metricName, help, null);
+    }
+
+    /**
+     * @param tracePhase RequestTrace phase the calls count towards, or null for none
+     */
+    public OperationTimer(MetricsRegistry registry, String metricName, String help, String tracePhase) {
+        this.registry = registry;
+        this.metricName = metricName;
+        this.help = help;
+        this.tracePhase = tracePhase;
+    }
+
+    /**
+     * Records the time since startNanos (a System.nanoTime() value) for operation
+     */
+    public void record(String operation, long startNanos) {
+        record(operation, startNanos, tracePhase == null ? null : RequestTrace.current());
+    }
+
+    private void record(String operation, long startNanos, RequestTrace trace) {
+        long elapsed = System.nanoTime() - startNanos;
+        histogram(operation).record(elapsed);
+        if (trace != null) {
+            trace.add(tracePhase, startNanos, elapsed);
+        }
+    }
+
+    /**
+     * Records the time from startNanos until future completes, successfully or not
+     *
+     * @return future completing with the same outcome once the time is recorded, so
+     *         stages added by the caller see it; cancelling it cancels future too
+     */
+    public <T> CompletableFuture<T> recordWhenDone(String operation, long startNanos, CompletableFuture<T> future) {
+        // completion may happen on another thread - keep the caller's trace
+        RequestTrace trace = tracePhase == null ? null : RequestTrace.current();
+        CompletableFuture<T> timed = future.whenComplete((value, error) -> record(operation, startNanos, trace));
+        timed.whenComplete((value, error) -> {
+            if (timed.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return timed;
+    }
+
+    public LatencyHistogram histogram(String operation) {
+        LatencyHistogram histogram = histograms.get(operation);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(operation,
+                    key -> registry.histogram(metricName, help, "operation", key));
+        }
+        return histogram;
+    }
+}
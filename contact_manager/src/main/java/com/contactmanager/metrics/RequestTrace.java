@@ -0,0 +1,149 @@
+package com.contactmanager.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where the time of one request went: connection wait, SQL, row mapping, JSON, ...
+ * <p>
+ * Interview Point: the trace travels with the request in a ThreadLocal, so the
+ * DAO and the pool can add to it without a trace parameter on every method.
+ * Code that moves work to another thread (AsyncContactDAO) carries it across
+ * with attach(). When the request is not traced, current() is null and
+ * each instrumented spot costs one ThreadLocal read - no clock reads, no allocation.
+ * <p>
+ * Time is summed per phase (what Server-Timing reports); the individual spans
+ * are also kept, up to MAX_SPANS, for the trace log.
+ */
+public class RequestTrace {
+
+    /** Phase names, as they appear in the Server-Timing header */
+    public static final String CONNECTION = "conn";
+    public static final String SQL = "sql";
+    public static final String ROW_MAPPING = "map";
+    public static final String DAO = "dao";
+    public static final String SERVICE = "svc";
+    public static final String JSON = "json";
+
+    private static final int MAX_SPANS = 64;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final long startNanos = System.nanoTime();
+
+    // phase -> {total nanos, count}; guarded by this (async work may add from another thread)
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private final List<Span> spans = new ArrayList<>();
+    private int droppedSpans;
+
+    public RequestTrace(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return trace of the request running on this thread, or null if it is not traced
+     */
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes trace the current one on this thread (null detaches)
+     *
+     * @return the trace that was current before, to pass back to attach() afterwards
+     */
+    public static RequestTrace attach(RequestTrace trace) {
+        RequestTrace previous = CURRENT.get();
+        if (trace == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(trace);
+        }
+        return previous;
+    }
+
+    /**
+     * Adds the time since startNanos to phase of the current trace, if any
+     */
+    public static void record(String phase, long startNanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.add(phase, startNanos, System.nanoTime() - startNanos);
+        }
+    }
+
+    public synchronized void add(String phase, long spanStartNanos, long durationNanos) {
+        long[] total = phases.computeIfAbsent(phase, key -> new long[2]);
+        total[0] += durationNanos;
+        total[1]++;
+        if (spans.size() < MAX_SPANS) {
+            spans.add(new Span(phase, spanStartNanos - startNanos, durationNanos));
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    /**
+     * Adds to the phase total only - for very frequent, very short spans such as mapping one row
+     */
+    public synchronized void addToTotal(String phase, long durationNanos) {
+        long[] total = phases.computeIfAbsent(phase, key -> new long[2]);
+        total[0] += durationNanos;
+        total[1]++;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Server-Timing header value, e.g. conn;dur=0.21, sql;dur=3.40;desc="2 calls", total;dur=5.02
+     */
+    public synchronized String toServerTiming(long totalNanos) {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, long[]> phase : phases.entrySet()) {
+            header.append(phase.getKey()).append(";dur=").append(millis(phase.getValue()[0]));
+            if (phase.getValue()[1] > 1) {
+                header.append(";desc=\"").append(phase.getValue()[1]).append(" calls\"");
+            }
+            header.append(", ");
+        }
+        return header.append("total;dur=").append(millis(totalNanos)).toString();
+    }
+
+    /**
+     * One line per span, offsets from the start of the request
+     */
+    public synchronized String toLog(String outcome, long totalNanos) {
+        StringBuilder log = new StringBuilder("trace ").append(name).append(' ').append(outcome)
+                .append(" total=").append(millis(totalNanos)).append("ms");
+        for (Span span : spans) {
+            log.append("\n  +").append(millis(span.offsetNanos)).append("ms ")
+                    .append(span.phase).append(' ').append(millis(span.durationNanos)).append("ms");
+        }
+        if (droppedSpans > 0) {
+            log.append("\n  (").append(droppedSpans).append(" more spans)");
+        }
+        return log.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static final class Span {
+        private final String phase;
+        private final long offsetNanos;
+        private final long durationNanos;
+
+        private Span(String phase, long offsetNanos, long durationNanos) {
+            this.phase = phase;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
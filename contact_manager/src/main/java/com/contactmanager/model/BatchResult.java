@@ -0,0 +1,76 @@
+package com.contactmanager.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Outcome of a batch write
+ * <p>
+ * Rows are identified by their position in the submitted list:
+ * - generatedIds.get(i) is the new id of row i, or null if row i failed
+ * - failures maps row index to the reason it was rejected
+ */
+public class BatchResult {
+
+    private final List<Integer> generatedIds;
+    private final Map<Integer, String> failures = new TreeMap<>();
+    private long elapsedNanos;
+
+    public BatchResult(int size) {
+        this.generatedIds = new ArrayList<>(Collections.nCopies(size, null));
+    }
+
+    public void recordSuccess(int index, int generatedId) {
+        generatedIds.set(index, generatedId);
+        failures.remove(index);
+    }
+
+    public void recordFailure(int index, String reason) {
+        generatedIds.set(index, null);
+        failures.put(index, reason);
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getSize() {
+        return generatedIds.size();
+    }
+
+    public List<Integer> getGeneratedIds() {
+        return generatedIds;
+    }
+
+    public Map<Integer, String> getFailures() {
+        return failures;
+    }
+
+    public int getSuccessCount() {
+        return generatedIds.size() - failures.size();
+    }
+
+    public int getFailureCount() {
+        return failures.size();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Throughput of successfully written rows
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getSuccessCount() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{rows=%d, inserted=%d, failed=%d, elapsed=%d ms, %.0f rows/s}",
+                getSize(), getSuccessCount(), getFailureCount(), getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -22,6 +22,8 @@ public class Contact {
     private String address;
     private Timestamp createdAt;
     private Timestamp updatedAt;
+    // change-feed version: id of the transaction that last wrote the row
+    private long version;
 
 //    def consatructor for creatinf empty objects
 
@@ -64,6 +66,13 @@ public class Contact {
         // for handling sample cases
     }
 
+    // copy constructor - used by caches to hand out independent copies
+    public Contact(Contact other) {
+        this(other.id, other.firstName, other.lastName, other.phone, other.email, other.address,
+                other.createdAt, other.updatedAt);
+        this.version = other.version;
+    }
+
     // Getters and Setters
     // Getters: To READ data from private fields
     // Setters: To WRITE data to private fields
@@ -131,6 +140,14 @@ public class Contact {
         this.updatedAt = updatedAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     // toString() method - for printing object details
     // Very useful for debugging and displaying data
     public String toString() {
@@ -143,6 +160,7 @@ public class Contact {
                 "address " + address + '\'' +
                 " ,createdAt " + createdAt + '\'' +
                 ",updatedAt =" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 
@@ -0,0 +1,49 @@
+package com.contactmanager.model;
+
+/**
+ * One entry of the change feed
+ * <p>
+ * A created or updated contact carries the full row; a deleted contact is a
+ * tombstone with only its id and version, so clients know to remove it.
+ */
+public class ContactChange {
+
+    private final int id;
+    private final long version;
+    private final boolean deleted;
+    private final Contact contact;
+
+    private ContactChange(int id, long version, boolean deleted, Contact contact) {
+        this.id = id;
+        this.version = version;
+        this.deleted = deleted;
+        this.contact = contact;
+    }
+
+    public static ContactChange upserted(Contact contact) {
+        return new ContactChange(contact.getId(), contact.getVersion(), false, contact);
+    }
+
+    public static ContactChange deleted(int id, long version) {
+        return new ContactChange(id, version, true, null);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return current row, or null for a tombstone
+     */
+    public Contact getContact() {
+        return contact;
+    }
+}
@@ -0,0 +1,35 @@
+package com.contactmanager.model;
+
+import java.util.List;
+
+/**
+ * One response of the delta sync feed
+ * <p>
+ * - changes: created/updated rows and tombstones, oldest first
+ * - since: watermark to send with the next request
+ * - hasMore: true if more changes are ready now; false means the client is caught up
+ */
+public class ContactChangePage {
+
+    private final List<ContactChange> changes;
+    private final String since;
+    private final boolean hasMore;
+
+    public ContactChangePage(List<ContactChange> changes, String since, boolean hasMore) {
+        this.changes = changes;
+        this.since = since;
+        this.hasMore = hasMore;
+    }
+
+    public List<ContactChange> getChanges() {
+        return changes;
+    }
+
+    public String getSince() {
+        return since;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,32 @@
+package com.contactmanager.model;
+
+import java.util.List;
+
+/**
+ * One page of contacts from a keyset-paginated query
+ * <p>
+ * nextCursor is null on the last page; otherwise pass it back
+ * as the cursor parameter to fetch the following page
+ */
+public class ContactPage {
+
+    private final List<Contact> items;
+    private final String nextCursor;
+
+    public ContactPage(List<Contact> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Contact> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
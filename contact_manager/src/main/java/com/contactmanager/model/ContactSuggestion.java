@@ -0,0 +1,29 @@
+package com.contactmanager.model;
+
+/**
+ * Lightweight autocomplete result - just enough to show a name and link to the contact
+ */
+public class ContactSuggestion {
+
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+
+    public ContactSuggestion(int id, String firstName, String lastName) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
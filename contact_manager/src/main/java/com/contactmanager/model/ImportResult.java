@@ -0,0 +1,82 @@
+package com.contactmanager.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk CSV import
+ * <p>
+ * Only the first MAX_ERRORS rejection messages are kept,
+ * so memory stays constant no matter how many rows are rejected
+ */
+public class ImportResult {
+
+    private static final int MAX_ERRORS = 100;
+
+    private long rowsRead;
+    private long rowsRejected;
+    private long rowsInserted;
+    private long rowsSkipped;
+    private long elapsedNanos;
+    private final List<String> errors = new ArrayList<>();
+
+    public void recordRead() {
+        rowsRead++;
+    }
+
+    public void recordRejected(long lineNumber, String reason) {
+        rowsRejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    public void setRowsInserted(long rowsInserted) {
+        this.rowsInserted = rowsInserted;
+    }
+
+    public void setRowsSkipped(long rowsSkipped) {
+        this.rowsSkipped = rowsSkipped;
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    public long getRowsInserted() {
+        return rowsInserted;
+    }
+
+    /**
+     * Valid rows not inserted because the phone or email already exists
+     */
+    public long getRowsSkipped() {
+        return rowsSkipped;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportResult{read=%d, inserted=%d, skipped=%d, rejected=%d, elapsed=%d ms, %.0f rows/s}",
+                rowsRead, rowsInserted, rowsSkipped, rowsRejected, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,54 @@
+package com.contactmanager.model;
+
+/**
+ * Outcome of updating one contact
+ * <p>
+ * - UPDATED: contact holds the stored row
+ * - otherwise contact is null and status says why (the API maps it to 404, 400 or 409)
+ */
+public class UpdateResult {
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND,
+        INVALID,
+        // the new phone number belongs to another contact
+        DUPLICATE_PHONE
+    }
+
+    private final Status status;
+    private final Contact contact;
+
+    private UpdateResult(Status status, Contact contact) {
+        this.status = status;
+        this.contact = contact;
+    }
+
+    public static UpdateResult updated(Contact contact) {
+        return new UpdateResult(Status.UPDATED, contact);
+    }
+
+    public static UpdateResult notFound() {
+        return new UpdateResult(Status.NOT_FOUND, null);
+    }
+
+    public static UpdateResult invalid() {
+        return new UpdateResult(Status.INVALID, null);
+    }
+
+    public static UpdateResult duplicatePhone() {
+        return new UpdateResult(Status.DUPLICATE_PHONE, null);
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Contact getContact() {
+        return contact;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.UPDATED;
+    }
+}
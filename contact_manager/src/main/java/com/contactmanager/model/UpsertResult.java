@@ -0,0 +1,48 @@
+package com.contactmanager.model;
+
+/**
+ * Outcome of an upsert (insert or update) of one contact
+ * <p>
+ * - success: contact holds the stored row, inserted tells which branch ran
+ * - failure: contact is null and error says why
+ */
+public class UpsertResult {
+
+    private final Contact contact;
+    private final boolean inserted;
+    private final String error;
+
+    private UpsertResult(Contact contact, boolean inserted, String error) {
+        this.contact = contact;
+        this.inserted = inserted;
+        this.error = error;
+    }
+
+    public static UpsertResult inserted(Contact contact) {
+        return new UpsertResult(contact, true, null);
+    }
+
+    public static UpsertResult updated(Contact contact) {
+        return new UpsertResult(contact, false, null);
+    }
+
+    public static UpsertResult failed(String error) {
+        return new UpsertResult(null, false, error);
+    }
+
+    public Contact getContact() {
+        return contact;
+    }
+
+    public boolean isInserted() {
+        return inserted;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
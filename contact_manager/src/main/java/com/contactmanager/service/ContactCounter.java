@@ -0,0 +1,92 @@
+package com.contactmanager.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process contact count, kept current by the service's own writes
+ * <p>
+ * Interview Point: In PostgreSQL "SELECT COUNT(*)" has to visit every row
+ * (MVCC means there is no stored row count), so polling it is a full scan.
+ * Instead the count is seeded once, adjusted with a LongAdder on every
+ * successful add/delete (cheap under contention), and periodically reconciled
+ * against the database to correct drift from writes made by other processes.
+ */
+public class ContactCounter {
+
+    private final LongAdder count = new LongAdder();
+    private final LongSupplier source;
+    private volatile boolean seeded;
+    private ScheduledExecutorService reconciler;
+
+    /**
+     * @param source where the authoritative (or estimated) count comes from
+     */
+    public ContactCounter(LongSupplier source) {
+        this.source = source;
+    }
+
+    /**
+     * @return true once the counter holds a usable value
+     */
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Sets the counter to a known value
+     */
+    public synchronized void seed(long value) {
+        count.add(value - count.sum());
+        seeded = true;
+    }
+
+    public void add(long delta) {
+        if (delta != 0) {
+            count.add(delta);
+        }
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    /**
+     * Re-reads the count from the source
+     * Writes that land between the read and the reset are corrected on the next run
+     */
+    public void reconcile() {
+        long actual = source.getAsLong();
+        if (actual >= 0) {
+            long drift = actual - get();
+            seed(actual);
+            if (drift != 0) {
+                System.out.println("contact count reconciled: drift " + drift + ", now " + actual);
+            }
+        }
+    }
+
+    /**
+     * Reconciles every periodSeconds on a background thread (0 disables it)
+     */
+    public synchronized void startReconciliation(long periodSeconds) {
+        if (reconciler != null || periodSeconds <= 0) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "contact-count-reconciler");
+            t.setDaemon(true);
+            return t;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                System.err.println("contact count reconciliation failed: " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,144 @@
+package com.contactmanager.service;
+
+import com.contactmanager.model.Contact;
+import com.contactmanager.model.ContactSuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index of contact names for search-as-you-type
+ * <p>
+ * Interview Point: Every name token ("amit", "sharma", "amit sharma") is stored
+ * as a key "token\0id" in a sorted, concurrent skip list. All tokens starting with
+ * a prefix are adjacent in sort order, so a lookup is one O(log n) seek followed
+ * by reading the next K entries - no database round trip, no table scan.
+ * <p>
+ * ConcurrentSkipListMap allows lock-free reads while contacts are added,
+ * updated and removed.
+ */
+public class ContactPrefixIndex {
+
+    // separates the token from the id inside a key; sorts before any letter
+    private static final char SEPARATOR = '\u0000';
+
+    // "token\0id" -> suggestion
+    private final ConcurrentSkipListMap<String, ContactSuggestion> tokens = new ConcurrentSkipListMap<>();
+
+    // id -> keys currently indexed for that contact (needed to remove/replace it)
+    private final Map<Integer, List<String>> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or replaces a contact in the index
+     */
+    public void put(Contact contact) {
+        ContactSuggestion suggestion = new ContactSuggestion(
+                contact.getId(), contact.getFirstName(), contact.getLastName());
+
+        List<String> keys = new ArrayList<>(3);
+        for (String token : tokensOf(contact)) {
+            keys.add(token + SEPARATOR + contact.getId());
+        }
+
+        // compute() serializes concurrent updates of the same contact
+        keysById.compute(contact.getId(), (id, oldKeys) -> {
+            if (oldKeys != null) {
+                oldKeys.forEach(tokens::remove);
+            }
+            for (String key : keys) {
+                tokens.put(key, suggestion);
+            }
+            return keys;
+        });
+    }
+
+    /**
+     * Removes a contact from the index
+     */
+    public void remove(int id) {
+        keysById.computeIfPresent(id, (key, oldKeys) -> {
+            oldKeys.forEach(tokens::remove);
+            return null;
+        });
+    }
+
+    /**
+     * Returns up to limit contacts with a name token starting with prefix
+     * Matches are ordered by token, so shorter and alphabetically earlier names come first
+     *
+     * @param prefix text typed so far
+     * @param limit  maximum number of suggestions
+     * @return matching contacts, each at most once
+     */
+    public List<ContactSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // every key starting with the prefix sorts between prefix and prefix + MAX_VALUE
+        NavigableMap<String, ContactSuggestion> range =
+                tokens.subMap(normalized, true, normalized + Character.MAX_VALUE, false);
+
+        Set<Integer> seen = new LinkedHashSet<>();
+        List<ContactSuggestion> results = new ArrayList<>(Math.min(limit, 16));
+        for (ContactSuggestion suggestion : range.values()) {
+            if (seen.add(suggestion.getId())) {
+                results.add(suggestion);
+                if (results.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Number of contacts in the index
+     */
+    public int size() {
+        return keysById.size();
+    }
+
+    /**
+     * Tokens indexed for a contact: first name, last name and full name
+     */
+    private static Set<String> tokensOf(Contact contact) {
+        Set<String> result = new LinkedHashSet<>();
+        String first = normalize(contact.getFirstName());
+        String last = normalize(contact.getLastName());
+        if (!first.isEmpty()) {
+            result.add(first);
+        }
+        if (!last.isEmpty()) {
+            result.add(last);
+        }
+        if (!first.isEmpty() && !last.isEmpty()) {
+            result.add(first + " " + last);
+        }
+        return result;
+    }
+
+    /**
+     * Lower-cases, strips accents and collapses whitespace
+     * so "  José " and "jose" index to the same token
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return stripped.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT)
+                .replace(String.valueOf(SEPARATOR), "");
+    }
+}
@@ -1,10 +1,40 @@
 package com.contactmanager.service;
 
+import com.contactmanager.dao.AsyncContactDAO;
 import com.contactmanager.dao.ContactDAOImpl;
 import com.contactmanager.dao.ContactDAO;
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.metrics.OperationTimer;
+import com.contactmanager.metrics.RequestTrace;
+import com.contactmanager.model.BatchResult;
 import com.contactmanager.model.Contact;
-
+import com.contactmanager.model.ContactChange;
+import com.contactmanager.model.ContactChangePage;
+import com.contactmanager.model.ContactPage;
+import com.contactmanager.model.ContactSuggestion;
+import com.contactmanager.model.ImportResult;
+import com.contactmanager.model.UpdateResult;
+import com.contactmanager.model.UpsertResult;
+import com.contactmanager.util.BloomFilter;
+import com.contactmanager.util.CsvReader;
+import com.contactmanager.util.DatabaseConnection;
+import com.contactmanager.util.PageCursor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 
 /**
@@ -24,16 +54,86 @@ import java.util.List;
 
 public class ContactService {
 
+    // page size bounds for paginated listing and search
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     //dao instance for database operations
     private final ContactDAO contactDAO;
 
+    // same DAO, called on its own bounded executor - used by the *Async methods
+    private final AsyncContactDAO asyncDAO;
+
+    // name prefix index for autocomplete - null until warmUp() builds it
+    private volatile ContactPrefixIndex autocompleteIndex;
+
+    // phone numbers (digits only) known to exist - null until warmUp() builds it
+    private volatile BloomFilter phoneFilter;
+
+    // striped locks: adds of the same phone number in this process run one at a time
+    private final ReentrantLock[] phoneLocks = new ReentrantLock[64];
+
+    // contact count kept in memory; reconciled with the database in the background
+    private final ContactCounter contactCounter;
+
+    // bumped after every committed write; list responses carry it as their ETag.
+    // the startup time keeps tags from an earlier process from matching by accident
+    private final AtomicLong collectionVersion = new AtomicLong();
+    private final String collectionEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // latency of each public operation, exported at /metrics
+    private final OperationTimer timer = new OperationTimer(MetricsRegistry.getDefault(),
+            "service_operation_duration_seconds", "Time spent in ContactService operations", RequestTrace.SERVICE);
+
     /**
      * Constructor - initializes DAO
      * In real applications, this would use Dependency Injection
      */
 
     public ContactService(ContactDAO contactDAO) {
+        this(contactDAO, AsyncContactDAO.fromProperties(contactDAO));
+    }
+
+    public ContactService(ContactDAO contactDAO, AsyncContactDAO asyncDAO) {
         this.contactDAO = contactDAO;
+        this.asyncDAO = asyncDAO;
+        for (int i = 0; i < phoneLocks.length; i++) {
+            phoneLocks[i] = new ReentrantLock();
+        }
+
+        // count.mode=estimate reconciles from table statistics instead of COUNT(*)
+        boolean estimate = DatabaseConnection.getProperty("count.mode", "exact").equalsIgnoreCase("estimate");
+        this.contactCounter = new ContactCounter(estimate
+                ? contactDAO::estimateContactCount
+                : contactDAO::getContactCount);
+    }
+
+    /**
+     * Builds in-memory structures from the database in one streaming pass
+     * Call once at startup (the API server does); safe to call again to rebuild
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        ContactPrefixIndex index = new ContactPrefixIndex();
+        BloomFilter phones = new BloomFilter(
+                DatabaseConnection.getLongProperty("phone.filter.expectedContacts", 1_000_000), 0.01);
+
+        LongAdder rows = new LongAdder();
+        try (Stream<Contact> contacts = contactDAO.streamAllContacts()) {
+            contacts.forEach(contact -> {
+                index.put(contact);
+                phones.put(normalizePhone(contact.getPhone()));
+                rows.increment();
+            });
+        }
+
+        // swap in the finished structures so readers never see half-built ones
+        autocompleteIndex = index;
+        phoneFilter = phones;
+        contactCounter.seed(rows.sum());
+        contactCounter.startReconciliation(DatabaseConnection.getLongProperty("count.reconcileSeconds", 60));
+        System.out.printf("autocomplete index and phone filter ready: %d contacts in %d ms%n",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
     }
 
 
@@ -42,33 +142,355 @@ public class ContactService {
      * Adds a new contact with validation
      *
      * @param contact Contact object to add
-     * @return true if added successfully, false otherwise
+     * @return the stored contact (with generated id), or null if not added
+     */
+
+    public Contact addContact(Contact contact) {
+        long start = System.nanoTime();
+        try {
+            // Validation before database operation
+
+            if (!isValidContact(contact)) {
+                System.out.println("Validation Failed ! - contact data is invalid");
+                return null;
+            }
+
+            // hold the lock for this number from the duplicate check until the insert is done,
+            // so two concurrent adds of the same number cannot both pass the check
+            String phoneDigits = normalizePhone(contact.getPhone());
+            ReentrantLock lock = phoneLock(phoneDigits);
+            lock.lock();
+            try {
+                //check for duplicate phone no
+                if (isPhoneExists(contact.getPhone())) {
+                    System.out.println("phone number existss" + contact.getPhone());
+                    return null;
+                }
+
+                // All validations passed - proceed with database operation
+                // (the unique index on phone digits still guards against other processes)
+                Contact result = contactDAO.addContact(contact);
+
+                if(result != null){
+                    contactCounter.add(1);
+                    rememberPhone(phoneDigits);
+                    indexContact(result);
+                    collectionChanged();
+                    System.out.println("contact added succesfully: "+ contact.getFirstName());
+                }else{
+                    System.out.println("failed to add contact to database");
+                }
+
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            timer.record("addContact", start);
+        }
+    }
+
+    /**
+     * Adds many contacts with validation, using one batched transaction
+     * Invalid rows and duplicate phone numbers are reported as failures
+     * and the remaining rows are still inserted
+     *
+     * @param contacts Contacts to add
+     * @return generated id per row, per-row failures and throughput
      */
 
-    public boolean addContact(Contact contact) {
-        // Validation before database operation
+    public BatchResult addContacts(List<Contact> contacts) {
+        long start = System.nanoTime();
+        try {
+            BatchResult result = new BatchResult(contacts.size());
+
+            // numbers the Bloom filter cannot rule out are checked in one indexed query
+            BloomFilter filter = phoneFilter;
+            Set<String> candidates = new HashSet<>();
+            for (Contact contact : contacts) {
+                if (contact != null && contact.getPhone() != null) {
+                    String digits = normalizePhone(contact.getPhone());
+                    if (filter == null || filter.mightContain(digits)) {
+                        candidates.add(digits);
+                    }
+                }
+            }
+            Set<String> knownPhones = new HashSet<>(contactDAO.findExistingPhones(candidates));
+
+            List<Contact> validContacts = new ArrayList<>();
+            List<Integer> originalIndexes = new ArrayList<>();
+
+            for (int i = 0; i < contacts.size(); i++) {
+                Contact contact = contacts.get(i);
+                if (!isValidContact(contact)) {
+                    result.recordFailure(i, "Validation failed");
+                } else if (!knownPhones.add(normalizePhone(contact.getPhone()))) {
+                    // already stored, or repeated earlier in this batch
+                    result.recordFailure(i, "Phone number already exists: " + contact.getPhone());
+                } else {
+                    validContacts.add(contact);
+                    originalIndexes.add(i);
+                }
+            }
+
+            if (!validContacts.isEmpty()) {
+                BatchResult inserted = contactDAO.addContacts(validContacts);
+
+                // map results back to positions in the caller's list
+                for (int i = 0; i < validContacts.size(); i++) {
+                    int originalIndex = originalIndexes.get(i);
+                    String failure = inserted.getFailures().get(i);
+                    if (failure != null) {
+                        result.recordFailure(originalIndex, failure);
+                    } else {
+                        int id = inserted.getGeneratedIds().get(i);
+                        result.recordSuccess(originalIndex, id);
+
+                        Contact contact = validContacts.get(i);
+                        contact.setId(id);
+                        rememberPhone(normalizePhone(contact.getPhone()));
+                        indexContact(contact);
+                    }
+                }
+            }
+
+            contactCounter.add(result.getSuccessCount());
+            if (result.getSuccessCount() > 0) {
+                collectionChanged();
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            System.out.println("batch insert finished: " + result);
+            return result;
+        } finally {
+            timer.record("addContacts", start);
+        }
+    }
+
+    /**
+     * Inserts a contact, or updates the existing one with the same email / phone
+     * One database round trip - no read before the write
+     *
+     * @param contact Contact data
+     * @param key     which unique field identifies an existing contact
+     * @return stored row and whether it was inserted or updated, or the failure reason
+     */
+
+    public UpsertResult upsertContact(Contact contact, ContactDAO.UpsertKey key) {
+        long start = System.nanoTime();
+        try {
+            String problem = validateForUpsert(contact, key);
+            if (problem != null) {
+                return UpsertResult.failed(problem);
+            }
+
+            UpsertResult result = contactDAO.upsertContact(contact, key);
+            afterUpsert(result);
+            System.out.println("upsert " + (result.isSuccess()
+                    ? (result.isInserted() ? "inserted " : "updated ") + result.getContact().getId()
+                    : "failed: " + result.getError()));
+            return result;
+        } finally {
+            timer.record("upsertContact", start);
+        }
+    }
+
+    /**
+     * Upserts many contacts in one transaction
+     *
+     * @param contacts Contacts to insert or update
+     * @param key      which unique field identifies existing contacts
+     * @return one result per input row, in input order
+     */
+
+    public List<UpsertResult> upsertContacts(List<Contact> contacts, ContactDAO.UpsertKey key) {
+        long start = System.nanoTime();
+        try {
+            List<UpsertResult> results = new ArrayList<>(Collections.nCopies(contacts.size(), null));
+
+            List<Contact> validContacts = new ArrayList<>();
+            List<Integer> originalIndexes = new ArrayList<>();
+            for (int i = 0; i < contacts.size(); i++) {
+                String problem = validateForUpsert(contacts.get(i), key);
+                if (problem != null) {
+                    results.set(i, UpsertResult.failed(problem));
+                } else {
+                    validContacts.add(contacts.get(i));
+                    originalIndexes.add(i);
+                }
+            }
 
+            if (!validContacts.isEmpty()) {
+                List<UpsertResult> stored = contactDAO.upsertContacts(validContacts, key);
+                for (int i = 0; i < stored.size(); i++) {
+                    results.set(originalIndexes.get(i), stored.get(i));
+                    afterUpsert(stored.get(i));
+                }
+            }
+
+            long inserted = results.stream().filter(r -> r.isSuccess() && r.isInserted()).count();
+            long updated = results.stream().filter(r -> r.isSuccess() && !r.isInserted()).count();
+            System.out.printf("batch upsert finished: %d inserted, %d updated, %d failed in %d ms%n",
+                    inserted, updated, results.size() - inserted - updated, (System.nanoTime() - start) / 1_000_000);
+            return results;
+        } finally {
+            timer.record("upsertContacts", start);
+        }
+    }
+
+    private String validateForUpsert(Contact contact, ContactDAO.UpsertKey key) {
         if (!isValidContact(contact)) {
-            System.out.println("Validation Failed ! - contact data is invalid");
-            return false;
+            return "Validation failed";
+        }
+        if (key == ContactDAO.UpsertKey.EMAIL && (contact.getEmail() == null || contact.getEmail().isEmpty())) {
+            return "Email is required to upsert by email";
         }
+        return null;
+    }
 
-        //check for duplicate phone no
-        if (isPhoneExists(contact.getPhone())) {
-            System.out.println("phone number existss" + contact.getPhone());
-            return false;
+    /**
+     * Keeps counter, phone filter and autocomplete index in step with an upsert
+     */
+    private void afterUpsert(UpsertResult result) {
+        if (!result.isSuccess()) {
+            return;
         }
+        Contact stored = result.getContact();
+        if (result.isInserted()) {
+            contactCounter.add(1);
+        }
+        rememberPhone(normalizePhone(stored.getPhone()));
+        indexContact(stored);
+        collectionChanged();
+    }
 
-        // All validations passed - proceed with database operation
-        boolean result = contactDAO.addContact(contact);
+    /**
+     * Imports contacts from a CSV file using PostgreSQL COPY
+     * <p>
+     * Expected columns: first_name, last_name, phone, email, address
+     * (a header row is detected and skipped). Each row is validated with the
+     * same rules as addContact; invalid rows are counted and skipped.
+     * Rows are streamed one at a time, so memory stays constant for any file size.
+     *
+     * @param csv CSV input (the caller closes it)
+     * @return counts of read / inserted / skipped / rejected rows and throughput
+     */
+
+    public ImportResult importContactsFromCsv(Reader csv) {
+        long start = System.nanoTime();
+        try {
+            ImportResult result = new ImportResult();
+            int progressEvery = DatabaseConnection.getIntProperty("import.progress.rows", 100_000);
+
+            CsvReader reader = new CsvReader(csv);
+            Iterator<Contact> validRows = new Iterator<>() {
+                private Contact next;
+                private boolean firstRecord = true;
+                private long valid;
+
+                @Override
+                public boolean hasNext() {
+                    try {
+                        while (next == null) {
+                            String[] fields = reader.readRecord();
+                            if (fields == null) {
+                                return false;
+                            }
+                            if (firstRecord && isHeader(fields)) {
+                                firstRecord = false;
+                                continue;
+                            }
+                            firstRecord = false;
+                            result.recordRead();
+
+                            Contact contact = toContact(fields);
+                            if (isValidContact(contact)) {
+                                next = contact;
+                                valid++;
+                            } else {
+                                result.recordRejected(reader.getLineNumber(), "Validation failed");
+                            }
+
+                            if (result.getRowsRead() % progressEvery == 0) {
+                                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                                System.out.printf("import progress: %d rows read, %d valid (%.0f rows/s)%n",
+                                        result.getRowsRead(), valid, result.getRowsRead() / seconds);
+                            }
+                        }
+                        return true;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public Contact next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    Contact contact = next;
+                    next = null;
+                    return contact;
+                }
+            };
+
+            try {
+                // only the inserted rows are indexed - no rescan of the table
+                LongAdder indexed = new LongAdder();
+                long inserted = contactDAO.copyContacts(validRows, contact -> {
+                    rememberPhone(normalizePhone(contact.getPhone()));
+                    indexContact(contact);
+                    indexed.increment();
+                });
+                if (inserted < 0) {
+                    result.setRowsInserted(0);
+                    result.recordRejected(reader.getLineNumber(), "Import failed and was rolled back");
+                    // rows were indexed before the rollback - rebuild so autocomplete does not offer them
+                    if (indexed.sum() > 0 && autocompleteIndex != null) {
+                        warmUp();
+                    }
+                } else {
+                    result.setRowsInserted(inserted);
+                    result.setRowsSkipped(result.getRowsRead() - result.getRowsRejected() - inserted);
+                    contactCounter.add(inserted);
+                    if (inserted > 0) {
+                        collectionChanged();
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                System.out.println("import failed: " + e.getCause().getMessage());
+                result.setRowsInserted(0);
+                result.recordRejected(reader.getLineNumber(), "Unreadable CSV: " + e.getCause().getMessage());
+            }
 
-        if(result){
-            System.out.println("contact added succesfully: "+ contact.getFirstName());
-        }else{
-            System.out.println("failed to add contact to database");
+            result.setElapsedNanos(System.nanoTime() - start);
+            System.out.println("import finished: " + result);
+            return result;
+        } finally {
+            timer.record("importContactsFromCsv", start);
         }
+    }
+
+    // package-private for CsvImportTest
+    static boolean isHeader(String[] fields) {
+        String first = fields[0].trim().replace("_", "");
+        return first.equalsIgnoreCase("firstname");
+    }
+
+    /**
+     * Maps CSV fields (first_name, last_name, phone, email, address) to a Contact
+     * Missing and empty fields become null
+     */
+    static Contact toContact(String[] fields) {
+        return new Contact(field(fields, 0), field(fields, 1), field(fields, 2),
+                field(fields, 3), field(fields, 4));
+    }
 
-        return result;
+    private static String field(String[] fields, int index) {
+        if (index >= fields.length) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() ? null : value;
     }
 
  /**
@@ -79,18 +501,23 @@ public class ContactService {
      */
 
  public Contact getContactById(int id){
-     if(id<=0){
-         System.out.println("Invaldi ID : Must be poistive num");
-         return null;
+     long start = System.nanoTime();
+     try {
+         if(id<=0){
+             System.out.println("Invaldi ID : Must be poistive num");
+             return null;
+         }
+
+         Contact contact = contactDAO.getContactById(id);
+
+         if(contact == null){
+             System.out.println("no contact found with id " + id);
+         }
+
+         return contact;
+     } finally {
+         timer.record("getContactById", start);
      }
-
-     Contact contact = contactDAO.getContactById(id);
-
-     if(contact == null){
-         System.out.println("no contact found with id " + id);
-     }
-
-     return contact;
  }
 
    /**
@@ -100,118 +527,563 @@ public class ContactService {
      */
 
    public List<Contact> getAllContacts(){
-       List<Contact> contacts = contactDAO.getAllContacts();
+       long start = System.nanoTime();
+       try {
+           List<Contact> contacts = contactDAO.getAllContacts();
 
-       if(contacts.isEmpty()){
-           System.out.println("no contacts found in database");
-       }else{
-           System.out.println("retrieved " + contacts.size() + "contacts ");
+           if(contacts.isEmpty()){
+               System.out.println("no contacts found in database");
+           }else{
+               System.out.println("retrieved " + contacts.size() + "contacts ");
+           }
+           return contacts;
+       } finally {
+           timer.record("getAllContacts", start);
        }
-       return contacts;
+   }
+
+   /**
+     * Streams all contacts without loading them into memory
+     * The caller must close the stream to release the database connection
+     *
+     * @return Lazily fetched stream of all contacts
+     */
+
+   public Stream<Contact> streamAllContacts(){
+       return contactDAO.streamAllContacts();
+   }
+
+   /**
+     * Retrieves one page of contacts ordered by id
+     *
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit  page size (clamped to 1..MAX_PAGE_SIZE)
+     * @return page of contacts plus the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+
+   public ContactPage getContactsPage(String cursor, int limit){
+       long start = System.nanoTime();
+       try {
+           int pageSize = clampPageSize(limit);
+           int afterId = cursor == null ? 0 : PageCursor.decode(cursor).getId();
+
+           // fetch one extra row to know whether another page exists
+           List<Contact> rows = contactDAO.getContactsAfter(afterId, pageSize + 1);
+           return toPage(rows, pageSize, false);
+       } finally {
+           timer.record("getContactsPage", start);
+       }
+   }
+
+   /**
+     * Retrieves one page of name search results ordered by first name, then id
+     *
+     * @param name   Name to search (can be partial)
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @param limit  page size (clamped to 1..MAX_PAGE_SIZE)
+     * @return page of matching contacts plus the cursor for the next page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+
+   public ContactPage searchContactsPage(String name, String cursor, int limit){
+       long start = System.nanoTime();
+       try {
+           if (name == null || name.trim().isEmpty()) {
+               System.out.println("search name cannot be empty");
+               return new ContactPage(List.of(), null);
+           }
+
+           int pageSize = clampPageSize(limit);
+           PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+
+           List<Contact> rows = contactDAO.searchContactsAfter(name.trim(),
+                   after == null ? null : after.getSortKey(),
+                   after == null ? 0 : after.getId(),
+                   pageSize + 1);
+           return toPage(rows, pageSize, true);
+       } finally {
+           timer.record("searchContactsPage", start);
+       }
+   }
+
+   /**
+     * Returns contacts created, updated or deleted since a watermark
+     * An empty watermark starts from the beginning, i.e. a full snapshot in pages
+     *
+     * @param since watermark from the previous response, or null
+     * @param limit maximum number of changes
+     * @return changes, the watermark for the next call, and whether more are ready
+     * @throws IllegalArgumentException if since is malformed
+     * @throws IllegalStateException if the database could not be read
+     */
+   public ContactChangePage getChangesSince(String since, int limit){
+       long start = System.nanoTime();
+       try {
+           int pageSize = clampPageSize(limit);
+           PageCursor after = (since == null || since.isBlank()) ? null : PageCursor.decode(since);
+           long afterVersion = watermarkVersion(after, since);
+           int afterId = after == null ? 0 : after.getId();
+
+           // read the horizon first: everything below it is already committed and visible
+           long horizon = contactDAO.getChangeHorizon();
+           List<ContactChange> rows = horizon < 0 ? null
+                   : contactDAO.getChangesSince(afterVersion, afterId, horizon, pageSize + 1);
+           if (rows == null) {
+               throw new IllegalStateException("Change feed unavailable");
+           }
+           return toChangePage(rows, pageSize, horizon, afterVersion, afterId);
+       } finally {
+           timer.record("getChangesSince", start);
+       }
+   }
+
+   private static long watermarkVersion(PageCursor after, String since){
+       try {
+           return after == null ? 0 : Long.parseLong(after.getSortKey());
+       } catch (NumberFormatException e) {
+           throw new IllegalArgumentException("Invalid watermark: " + since, e);
+       }
+   }
+
+   private static ContactChangePage toChangePage(List<ContactChange> rows, int pageSize, long horizon,
+                                                 long afterVersion, int afterId){
+       if (rows.size() > pageSize) {
+           List<ContactChange> changes = new ArrayList<>(rows.subList(0, pageSize));
+           ContactChange last = changes.get(pageSize - 1);
+           String next = new PageCursor(String.valueOf(last.getVersion()), last.getId()).encode();
+           return new ContactChangePage(changes, next, true);
+       }
+
+       // caught up: next time start at the horizon (id 0 sorts before every row at that version)
+       long nextVersion = Math.max(horizon, afterVersion);
+       int nextId = nextVersion == afterVersion ? afterId : 0;
+       String next = new PageCursor(String.valueOf(nextVersion), nextId).encode();
+       return new ContactChangePage(rows, next, false);
+   }
+
+   /*
+    * Async counterparts of the read methods above
+    *
+    * Interview Point: they return as soon as the query is queued, so the caller's
+    * thread is free while the database works, and independent queries can be
+    * started together and combined (thenCombine / allOf). Arguments are checked
+    * on the caller's thread - bad input throws right away, like the sync methods.
+    * Cancelling a returned future cancels the query it is waiting for.
+    */
+
+   /**
+     * @see #getContactById(int)
+     */
+   public CompletableFuture<Contact> getContactByIdAsync(int id){
+       long start = System.nanoTime();
+       if(id<=0){
+           System.out.println("Invaldi ID : Must be poistive num");
+           return CompletableFuture.completedFuture(null);
+       }
+       return timer.recordWhenDone("getContactById", start, asyncDAO.getContactById(id));
+   }
+
+   /**
+     * @see #getContactsPage(String, int)
+     */
+   public CompletableFuture<ContactPage> getContactsPageAsync(String cursor, int limit){
+       long start = System.nanoTime();
+       int pageSize = clampPageSize(limit);
+       int afterId = cursor == null ? 0 : PageCursor.decode(cursor).getId();
+
+       CompletableFuture<List<Contact>> rows = asyncDAO.getContactsAfter(afterId, pageSize + 1);
+       return timer.recordWhenDone("getContactsPage", start, AsyncContactDAO.cancelTogether(rows.thenApply(r -> toPage(r, pageSize, false)), rows));
+   }
+
+   /**
+     * @see #searchContactsPage(String, String, int)
+     */
+   public CompletableFuture<ContactPage> searchContactsPageAsync(String name, String cursor, int limit){
+       long start = System.nanoTime();
+       if (name == null || name.trim().isEmpty()) {
+           System.out.println("search name cannot be empty");
+           return CompletableFuture.completedFuture(new ContactPage(List.of(), null));
+       }
+
+       int pageSize = clampPageSize(limit);
+       PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+
+       CompletableFuture<List<Contact>> rows = asyncDAO.searchContactsAfter(name.trim(),
+               after == null ? null : after.getSortKey(),
+               after == null ? 0 : after.getId(),
+               pageSize + 1);
+       return timer.recordWhenDone("searchContactsPage", start, AsyncContactDAO.cancelTogether(rows.thenApply(r -> toPage(r, pageSize, true)), rows));
+   }
+
+   /**
+     * @see #searchContactByName(String)
+     */
+   public CompletableFuture<List<Contact>> searchContactByNameAsync(String name){
+       long start = System.nanoTime();
+       if (name == null || name.trim().isEmpty()) {
+           System.out.println("search name cannot be empty");
+           return CompletableFuture.completedFuture(List.of());
+       }
+       return timer.recordWhenDone("searchContactByName", start, asyncDAO.searchContactByName(name.trim()));
+   }
+
+   /**
+     * @see #getChangesSince(String, int)
+     */
+   public CompletableFuture<ContactChangePage> getChangesSinceAsync(String since, int limit){
+       long start = System.nanoTime();
+       int pageSize = clampPageSize(limit);
+       PageCursor after = (since == null || since.isBlank()) ? null : PageCursor.decode(since);
+       long afterVersion = watermarkVersion(after, since);
+       int afterId = after == null ? 0 : after.getId();
+
+       // the changes query needs the horizon, so the two calls run one after the other
+       CompletableFuture<Long> horizon = asyncDAO.getChangeHorizon();
+       CompletableFuture<ContactChangePage> page = horizon.thenCompose(h -> {
+           if (h < 0) {
+               throw new IllegalStateException("Change feed unavailable");
+           }
+           return asyncDAO.getChangesSince(afterVersion, afterId, h, pageSize + 1).thenApply(rows -> {
+               if (rows == null) {
+                   throw new IllegalStateException("Change feed unavailable");
+               }
+               return toChangePage(rows, pageSize, h, afterVersion, afterId);
+           });
+       });
+       return timer.recordWhenDone("getChangesSince", start, AsyncContactDAO.cancelTogether(page, horizon));
+   }
+
+   private static int clampPageSize(int limit){
+       return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+   }
+
+   /**
+     * Trims the extra look-ahead row and builds the next cursor from the last row kept
+     */
+   private static ContactPage toPage(List<Contact> rows, int pageSize, boolean keyedByFirstName){
+       if (rows.size() <= pageSize) {
+           return new ContactPage(rows, null);
+       }
+       List<Contact> items = rows.subList(0, pageSize);
+       Contact last = items.get(pageSize - 1);
+       String sortKey = keyedByFirstName ? last.getFirstName() : null;
+       return new ContactPage(new ArrayList<>(items), new PageCursor(sortKey, last.getId()).encode());
    }
 
    /**
      * Searches contacts by name
+     * Unpaged: returns at most search.limit contacts (default 100), closest matches
+     * first - use searchContactsPage to read every match
      *
      * @param name Name to search (can be partial)
-     * @return List of matching contacts
+     * @return List of matching contacts, capped at search.limit
      */
 
 public List<Contact> searchContactByName(String name) {
-    if (name == null || name.trim().isEmpty()) {
-        System.out.println("search name cannot be empty");
-        return List.of();//return the empty list
-    }
+    long start = System.nanoTime();
+    try {
+        if (name == null || name.trim().isEmpty()) {
+            System.out.println("search name cannot be empty");
+            return List.of();//return the empty list
+        }
 
 
-    List<Contact> results = contactDAO.searchContactByName(name.trim());
+        List<Contact> results = contactDAO.searchContactByName(name.trim());
 
-    if (results.isEmpty()) {
-        System.out.println("no contact found matching " + name);
-    } else {
-        System.out.println("found " + results.size() + "contact matching " + name);
+        if (results.isEmpty()) {
+            System.out.println("no contact found matching " + name);
+        } else {
+            System.out.println("found " + results.size() + "contact matching " + name);
+        }
+        return results;
+    } finally {
+        timer.record("searchContactByName", start);
     }
-    return results;
 }
       /**
      * Updates existing contact with validation
+     * A new phone number is checked for duplicates under the same striped lock
+     * as addContact, so an update cannot take a number another contact holds
      *
      * @param contact Contact with updated data
-     * @return true if updated successfully, false otherwise
+     * @return the updated contact as stored, or why it was not updated
      */
 
-      public boolean updateContact(Contact contact) {
-          if (contact.getId() <= 0) {
-              System.out.println("invalid contact id ");
-              return false;
+      public UpdateResult updateContact(Contact contact) {
+          long start = System.nanoTime();
+          try {
+              if (contact.getId() <= 0) {
+                  System.out.println("invalid contact id ");
+                  return UpdateResult.invalid();
+              }
+
+              // Validate new data
+              if (!isValidContact(contact)) {
+                  System.out.println("❌ Validation failed: Updated contact data is invalid");
+                  return UpdateResult.invalid();
+              }
+
+              // served from the cache when there is one; also tells whether the phone changes
+              Contact current = contactDAO.getContactById(contact.getId());
+              if (current == null) {
+                  System.out.println("failed to update: contact not found with id " + contact.getId());
+                  return UpdateResult.notFound();
+              }
+
+              String phoneDigits = normalizePhone(contact.getPhone());
+              ReentrantLock lock = phoneLock(phoneDigits);
+              lock.lock();
+              try {
+                  // keeping its own number is fine; any other stored number is someone else's
+                  if (!phoneDigits.equals(normalizePhone(current.getPhone())) && isPhoneExists(contact.getPhone())) {
+                      System.out.println("phone number exists " + contact.getPhone());
+                      return UpdateResult.duplicatePhone();
+                  }
+
+                  //perform update
+                  Contact result = contactDAO.updateContact(contact);
+
+                  if (result == null) {
+                      // deleted meanwhile, or the unique index caught a write from another process
+                      System.out.println("failed to update contact with id " + contact.getId());
+                      return UpdateResult.notFound();
+                  }
+
+                  rememberPhone(phoneDigits);
+                  indexContact(result);
+                  collectionChanged();
+                  System.out.println("contact updated successfully " + result.getFirstName());
+                  return UpdateResult.updated(result);
+              } finally {
+                  lock.unlock();
+              }
+          } finally {
+              timer.record("updateContact", start);
           }
+      }
 
-          //check if exists
-          Contact existingContact = contactDAO.getContactById(contact.getId());
-          if (existingContact == null) {
-              System.out.println("contact not found with id " + contact.getId());
-              return false;
-          }
+       /**
+     * Deletes contact by ID
+     *
+     * @param id Contact ID to delete
+     * @return the deleted contact, or null if not found
+     */
 
-          // Validate new data
-          if (!isValidContact(contact)) {
-              System.out.println("❌ Validation failed: Updated contact data is invalid");
-              return false;
-          }
+       public Contact deleteContact(int id ){
+           long start = System.nanoTime();
+           try {
+               if(id<=0){
+                   System.out.println("invalid id : must be positive ");
+               return null;
+               }
+
+               // DELETE ... RETURNING tells us whether the contact existed - no lookup first
+               Contact result = contactDAO.deleteContact(id);
+
+               if(result != null){
+                   contactCounter.add(-1);
+                   collectionChanged();
+                   ContactPrefixIndex index = autocompleteIndex;
+                   if (index != null) {
+                       index.remove(id);
+                   }
+                   System.out.println("contact delted succes " + result.getFirstName());
+               }else{
+                   System.out.println("cannot delte :contact not found ");
+               }
+               return result;
+           } finally {
+               timer.record("deleteContact", start);
+           }
+       }
 
-          //perform update
-          boolean result = contactDAO.updateContact(contact);
 
-          if (result) {
-              System.out.println("contact updated successfully " + contact.getFirstName());
 
-          } else {
-              System.out.println("failed to update");
-          }
+    /**
+     * Updates many contacts with validation, using one batched transaction
+     * Invalid rows and unknown ids are reported as failures; the rest are still updated
+     *
+     * @param contacts Contacts with updated data
+     * @return id per updated row and per-row failures
+     */
 
-          return result;
-      }
+    public BatchResult updateContacts(List<Contact> contacts) {
+        long start = System.nanoTime();
+        try {
+            BatchResult result = new BatchResult(contacts.size());
+
+            List<Contact> validContacts = new ArrayList<>();
+            List<Integer> originalIndexes = new ArrayList<>();
+            for (int i = 0; i < contacts.size(); i++) {
+                Contact contact = contacts.get(i);
+                if (contact == null || contact.getId() <= 0) {
+                    result.recordFailure(i, "Invalid contact id");
+                } else if (!isValidContact(contact)) {
+                    result.recordFailure(i, "Validation failed");
+                } else {
+                    validContacts.add(contact);
+                    originalIndexes.add(i);
+                }
+            }
 
-       /**
-     * Deletes contact by ID
+            if (!validContacts.isEmpty()) {
+                BatchResult updated = contactDAO.updateContacts(validContacts);
+                for (int i = 0; i < validContacts.size(); i++) {
+                    int originalIndex = originalIndexes.get(i);
+                    String failure = updated.getFailures().get(i);
+                    if (failure != null) {
+                        result.recordFailure(originalIndex, failure);
+                    } else {
+                        Contact contact = validContacts.get(i);
+                        result.recordSuccess(originalIndex, contact.getId());
+                        rememberPhone(normalizePhone(contact.getPhone()));
+                        indexContact(contact);
+                    }
+                }
+            }
+
+            if (result.getSuccessCount() > 0) {
+                collectionChanged();
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            System.out.println("batch update finished: " + result);
+            return result;
+        } finally {
+            timer.record("updateContacts", start);
+        }
+    }
+
+    /**
+     * Deletes many contacts in one batched transaction
      *
-     * @param id Contact ID to delete
-     * @return true if deleted successfully, false otherwise
+     * @param ids Ids of contacts to delete
+     * @return id per deleted row and per-row failures
      */
 
-       public boolean deleteContact(int id ){
-           if(id<=0){
-               System.out.println("invalid id : must be positive ");
-           return false;
-           }
+    public BatchResult deleteContacts(List<Integer> ids) {
+        long start = System.nanoTime();
+        try {
+            BatchResult result = new BatchResult(ids.size());
+
+            List<Integer> validIds = new ArrayList<>();
+            List<Integer> originalIndexes = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Integer id = ids.get(i);
+                if (id == null || id <= 0) {
+                    result.recordFailure(i, "Invalid contact id");
+                } else {
+                    validIds.add(id);
+                    originalIndexes.add(i);
+                }
+            }
 
-           //check if contact exists before deleting
-           Contact contact = contactDAO.getContactById(id);
-           if(contact == null){
-               System.out.println("cannot delte :contact not found ");
-           return false;
-           }
+            if (!validIds.isEmpty()) {
+                BatchResult deleted = contactDAO.deleteContacts(validIds);
+                ContactPrefixIndex index = autocompleteIndex;
+                for (int i = 0; i < validIds.size(); i++) {
+                    int originalIndex = originalIndexes.get(i);
+                    String failure = deleted.getFailures().get(i);
+                    if (failure != null) {
+                        result.recordFailure(originalIndex, failure);
+                    } else {
+                        result.recordSuccess(originalIndex, validIds.get(i));
+                        if (index != null) {
+                            index.remove(validIds.get(i));
+                        }
+                    }
+                }
+            }
 
-                   // Confirm deletion (in real app, this would be in UI layer)
-boolean result = contactDAO.deleteContact(id);
+            contactCounter.add(-result.getSuccessCount());
+            if (result.getSuccessCount() > 0) {
+                collectionChanged();
+            }
+            result.setElapsedNanos(System.nanoTime() - start);
+            System.out.println("batch delete finished: " + result);
+            return result;
+        } finally {
+            timer.record("deleteContacts", start);
+        }
+    }
 
-           if(result){
-               System.out.println("contact delted succes " + contact.getFirstName());
-           }else{
-               System.out.println("failed to delete");
-           }
-           return result;
-}
+    /**
+     * Suggests contacts whose first name, last name or full name starts with prefix
+     * Served from the in-memory index; before warmUp() it falls back to a database search
+     *
+     * @param prefix text typed so far
+     * @param limit  maximum number of suggestions
+     * @return up to limit matching contacts
+     */
+    public List<ContactSuggestion> autocomplete(String prefix, int limit) {
+        long start = System.nanoTime();
+        try {
+            if (prefix == null || prefix.trim().isEmpty() || limit <= 0) {
+                return List.of();
+            }
 
+            ContactPrefixIndex index = autocompleteIndex;
+            if (index != null) {
+                return index.suggest(prefix, limit);
+            }
 
+            List<ContactSuggestion> suggestions = new ArrayList<>();
+            for (Contact contact : contactDAO.searchContactByName(prefix.trim(), limit)) {
+                suggestions.add(new ContactSuggestion(contact.getId(), contact.getFirstName(), contact.getLastName()));
+            }
+            return suggestions;
+        } finally {
+            timer.record("autocomplete", start);
+        }
+    }
+
+    /**
+     * Version of the contact collection as seen by this process
+     * Changes after every write made through this service - and only those:
+     * writes by another process on the same database are not seen, so it is a
+     * valid ETag only while this process is the single writer (etag.collection).
+     * Read it BEFORE reading the data it describes, so a concurrent write can
+     * only make the tag older than the data (a needless refetch), never newer
+     * (a stale 304)
+     *
+     * @return opaque version string, usable as an ETag value
+     */
+    public String getCollectionVersion() {
+        return collectionEpoch + "-" + collectionVersion.get();
+    }
+
+    // called after the write has committed - see getCollectionVersion()
+    private void collectionChanged() {
+        collectionVersion.incrementAndGet();
+    }
+
+    private void indexContact(Contact contact) {
+        ContactPrefixIndex index = autocompleteIndex;
+        if (index != null && contact.getId() > 0) {
+            index.put(contact);
+        }
+    }
 
     /**
      * Gets total count of contacts
+     * Served from the in-memory counter; the first call seeds it if warmUp() has not
      *
      * @return Total number of contacts
      */
     public int getContactCount() {
-        return contactDAO.getContactCount();
+        long start = System.nanoTime();
+        try {
+            if (!contactCounter.isSeeded()) {
+                int count = contactDAO.getContactCount();
+                if (count < 0) {
+                    return 0;
+                }
+                contactCounter.seed(count);
+            }
+            return (int) Math.min(Integer.MAX_VALUE, contactCounter.get());
+        } finally {
+            timer.record("getContactCount", start);
+        }
     }
 
 
@@ -220,10 +1092,12 @@ boolean result = contactDAO.deleteContact(id);
      * Validates contact data
      * Ensures required fields are present and valid
      *
+     * Package-private so the benchmarks module can measure it
+     *
      * @param contact Contact to validate
      * @return true if valid, false otherwise
      */
-    private boolean isValidContact(Contact contact) {
+    boolean isValidContact(Contact contact) {
 
         if(contact == null){
             System.out.println("validation error : contact object is null");
@@ -241,6 +1115,12 @@ boolean result = contactDAO.deleteContact(id);
             return false;
         }
 
+        // column limits from schema.sql
+        if(contact.getLastName()!=null && contact.getLastName().length()>50){
+            System.out.println("validation error : Last Name too long ");
+            return false;
+        }
+
         //validate phone number
         if(contact.getPhone() == null || contact.getPhone().trim().isEmpty()){
             System.out.println("validation erro phone number is required");
@@ -255,18 +1135,27 @@ boolean result = contactDAO.deleteContact(id);
             return false;
         }
 
+        if(contact.getPhone().length()>15){
+            System.out.println("validation error : phone number too long (max 15 characters)");
+            return false;
+        }
+
         //validate email format
         if(contact.getEmail() !=null && !contact.getEmail().isEmpty()){
             if(!isValidEmail(contact.getEmail())){
                 System.out.println("validatin eror: invalid email format ");
                 return false;
             }
+            if(contact.getEmail().length()>100){
+                System.out.println("validation error : email too long ");
+                return false;
+            }
         }
 
         return true;
     }
 
-    private boolean isValidEmail(String email) {
+    boolean isValidEmail(String email) {
         String emailRegex = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
         return email.matches(emailRegex);
     }
@@ -280,15 +1169,35 @@ boolean result = contactDAO.deleteContact(id);
      */
 
     private boolean isPhoneExists(String phone){
-        List<Contact> allContacts = contactDAO.getAllContacts();
+        String digits = normalizePhone(phone);
 
-        for(Contact contact:allContacts){
-            if(contact.getPhone().equals(phone)){
-                return true;
-            }
+        // Bloom filter says "definitely not stored" - no database round trip needed
+        BloomFilter filter = phoneFilter;
+        if (filter != null && !filter.mightContain(digits)) {
+            return false;
         }
 
-        return false;
+        // maybe stored - confirm with an indexed lookup
+        return !contactDAO.findExistingPhones(List.of(digits)).isEmpty();
+    }
+
+    /**
+     * Reduces a phone number to its digits, the form used for duplicate checks
+     * ("98765-43210" and "9876543210" are the same number)
+     */
+    private static String normalizePhone(String phone){
+        return phone == null ? "" : phone.replaceAll("[^0-9]", "");
+    }
+
+    private void rememberPhone(String phoneDigits){
+        BloomFilter filter = phoneFilter;
+        if (filter != null) {
+            filter.put(phoneDigits);
+        }
+    }
+
+    private ReentrantLock phoneLock(String phoneDigits){
+        return phoneLocks[(phoneDigits.hashCode() & Integer.MAX_VALUE) % phoneLocks.length];
     }
 
       /**
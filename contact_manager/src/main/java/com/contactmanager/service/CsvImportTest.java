@@ -0,0 +1,101 @@
+package com.contactmanager.service;
+
+import com.contactmanager.model.Contact;
+import com.contactmanager.util.CsvReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Test class for CSV import parsing: CsvReader and the header/row mapping
+ * used by ContactService.importContactsFromCsv
+ * No database needed:
+ *   mvn -q compile exec:java -Dexec.mainClass=com.contactmanager.service.CsvImportTest
+ */
+public class CsvImportTest {
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("===========================================");
+        System.out.println("    TESTING CSV IMPORT PARSING");
+        System.out.println("===========================================\n");
+
+        // TEST 1: plain and quoted fields
+        System.out.println("TEST 1: Quoted fields...");
+        CsvReader reader = reader("Amit,Sharma,9876543210,,\"House 12, MG Road, Pune\"\n"
+                + "\"Ravi \"\"RK\"\"\",\"\",\"9191919191\",ravi@example.com,Chennai\n");
+        checkRecord("unquoted fields, empty field, comma inside quotes", reader.readRecord(),
+                "Amit", "Sharma", "9876543210", "", "House 12, MG Road, Pune");
+        checkRecord("escaped quotes and empty quoted field", reader.readRecord(),
+                "Ravi \"RK\"", "", "9191919191", "ravi@example.com", "Chennai");
+        check("null at end of input", reader.readRecord() == null);
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 2: line breaks inside quotes belong to the field, and line numbers keep counting
+        System.out.println("TEST 2: Embedded newlines...");
+        reader = reader("Neha,Gupta,9000000001,,\"Flat 4\nSector 9\r\nNoida\"\r\nKaran,,9000000002,,Delhi\n");
+        checkRecord("field spanning three lines (LF and CRLF)", reader.readRecord(),
+                "Neha", "Gupta", "9000000001", "", "Flat 4\nSector 9\nNoida");
+        check("record ends on line 3", reader.getLineNumber() == 3);
+        checkRecord("next record after the multi-line one", reader.readRecord(),
+                "Karan", "", "9000000002", "", "Delhi");
+        check("record is on line 4", reader.getLineNumber() == 4);
+
+        boolean rejected = false;
+        try {
+            reader("Broken,\"never closed\n").readRecord();
+        } catch (IOException e) {
+            rejected = true;
+        }
+        check("unterminated quote is an error", rejected);
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 3: header detection only matches a first_name column
+        System.out.println("TEST 3: Header detection...");
+        check("first_name,last_name,... is a header",
+                ContactService.isHeader(new String[]{"first_name", "last_name", "phone", "email", "address"}));
+        check("\" FirstName \" is a header", ContactService.isHeader(new String[]{" FirstName ", "LastName"}));
+        check("a contact row is not a header",
+                !ContactService.isHeader(new String[]{"Amit", "Sharma", "9876543210"}));
+        check("\"first\" alone is not a header", !ContactService.isHeader(new String[]{"first", "name"}));
+
+        System.out.println("\n-------------------------------------------\n");
+
+        // TEST 4: rows map to contacts with missing and blank fields as null
+        System.out.println("TEST 4: Row to contact...");
+        Contact contact = ContactService.toContact(new String[]{" Amit ", "", "9876543210"});
+        check("fields are trimmed", "Amit".equals(contact.getFirstName()));
+        check("blank field is null", contact.getLastName() == null);
+        check("missing trailing fields are null", contact.getEmail() == null && contact.getAddress() == null);
+
+        System.out.println("\n===========================================");
+        System.out.println(failures == 0 ? "    ALL TESTS PASSED" : "    " + failures + " TEST(S) FAILED");
+        System.out.println("===========================================");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+
+    private static void checkRecord(String description, String[] actual, String... expected) {
+        boolean passed = Arrays.equals(actual, expected);
+        check(description, passed);
+        if (!passed) {
+            System.out.println("    expected " + Arrays.toString(expected) + ", got " + Arrays.toString(actual));
+        }
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "  PASS: " : "  FAIL: ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
@@ -3,8 +3,16 @@ package com.contactmanager.ui;
 import com.contactmanager.dao.ContactDAO;
 import com.contactmanager.dao.ContactDAOImpl;
 import com.contactmanager.model.Contact;
+import com.contactmanager.model.ImportResult;
+import com.contactmanager.model.UpdateResult;
 import com.contactmanager.service.ContactService;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.Scanner;
 
@@ -52,11 +60,14 @@ public class ConsoleUI {
                     deleteContact();
                     break;
                 case 6:
+                    importContacts();
+                    break;
+                case 7:
                     running = false;
                     displayExitMessage();
                     break;
                 default:
-                    System.out.println("invalid choise please enter 1 - 6");
+                    System.out.println("invalid choise please enter 1 - 7");
             }
 
             if (running) {
@@ -135,12 +146,13 @@ public class ConsoleUI {
         if (!address.isEmpty()) existingContact.setAddress(address);
 
         System.out.println("\n Updating Contact ..");
-        boolean success = contactService.updateContact(existingContact);
+        UpdateResult result = contactService.updateContact(existingContact);
 
-        if (success) {
-            Contact updated = contactService.getContactById(id);
+        if (result.isSuccess()) {
             System.out.println("Updated Details ");
-            System.out.println(updated.toDisplayString());
+            System.out.println(result.getContact().toDisplayString());
+        } else if (result.getStatus() == UpdateResult.Status.DUPLICATE_PHONE) {
+            System.out.println("Another contact already has this phone number");
         }
     }
 
@@ -170,6 +182,39 @@ public class ConsoleUI {
         }
     }
 
+    private void importContacts() {
+        System.out.println("=".repeat(60));
+        System.out.println("              IMPORT CONTACTS FROM CSV");
+        System.out.println("=".repeat(60));
+        System.out.println("Columns: first_name, last_name, phone, email, address");
+
+        String fileName = getStringInput("Enter CSV file path: ");
+        Path path = Paths.get(fileName);
+
+        if (!Files.isRegularFile(path)) {
+            System.out.println("file not found: " + fileName);
+            return;
+        }
+
+        System.out.println("\n Importing ... \n");
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            ImportResult result = contactService.importContactsFromCsv(reader);
+
+            System.out.println("\n" + "-".repeat(60));
+            System.out.println("Rows read     : " + result.getRowsRead());
+            System.out.println("Inserted      : " + result.getRowsInserted());
+            System.out.println("Skipped (dup) : " + result.getRowsSkipped());
+            System.out.println("Rejected      : " + result.getRowsRejected());
+            System.out.printf("Time          : %d ms (%.0f rows/s)%n", result.getElapsedMillis(), result.getRowsPerSecond());
+            for (String error : result.getErrors()) {
+                System.out.println("  - " + error);
+            }
+            System.out.println("-".repeat(60));
+        } catch (IOException e) {
+            System.out.println("failed to read file: " + e.getMessage());
+        }
+    }
+
     private void displayExitMessage() {
         System.out.println("\n" + "=".repeat(60));
         System.out.println("       Thank you for using Contact Manager!");
@@ -249,7 +294,8 @@ public class ConsoleUI {
         System.out.println("  3. Search Contact by Name");
         System.out.println("  4. Update Contact");
         System.out.println("  5. Delete Contact");
-        System.out.println("  6. Exit");
+        System.out.println("  6. Import Contacts from CSV");
+        System.out.println("  7. Exit");
         System.out.println("=".repeat(60));
     }
 
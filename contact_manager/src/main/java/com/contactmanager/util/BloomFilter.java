@@ -0,0 +1,96 @@
+package com.contactmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter for strings
+ * <p>
+ * Interview Point: A Bloom filter answers "definitely not present" or
+ * "maybe present" using a few bits per element. A negative answer needs no
+ * database round trip; a positive answer is confirmed against the database.
+ * Elements cannot be removed, so deletes only leave harmless false positives.
+ * <p>
+ * Bits live in an AtomicLongArray, so put() and mightContain() need no locks.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedElements    number of elements the filter is sized for
+     * @param falsePositiveRate   target false positive rate at that size (e.g. 0.01)
+     */
+    public BloomFilter(long expectedElements, double falsePositiveRate) {
+        long n = Math.max(1, expectedElements);
+        double p = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+
+        // optimal sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashCount; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    /**
+     * @return false if value was definitely never added, true if it may have been
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        long h1 = hash;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(long combinedHash) {
+        // Kirsch-Mitzenmacher double hashing, made non-negative
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    private void setBit(long bit) {
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * 64-bit FNV-1a over UTF-8 bytes, finished with a MurmurHash3 mixer
+     */
+    private static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,223 @@
+package com.contactmanager.util;
+
+import com.contactmanager.metrics.MetricsRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Size-bounded LRU cache with per-entry time-to-live
+ * <p>
+ * Interview Point: LinkedHashMap in access order keeps the least recently used
+ * entry at the head, so eviction is O(1). Entries have a weight (approximate
+ * size) and the cache evicts from the LRU end until the total weight fits.
+ * <p>
+ * The map is guarded by a single lock; hit/miss/eviction counters are LongAdders
+ * so reading statistics never contends with cache traffic.
+ * <p>
+ * Read-through callers use generation()/putIfGeneration(): every invalidation
+ * bumps the generation under the same lock as the put, so a value loaded before
+ * an invalidation can never be stored after it.
+ */
+public class BoundedCache<K, V> {
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalWeight;
+    // bumped by every invalidation, guarded by map like totalWeight
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxWeight  maximum total weight of all entries
+     * @param ttlMillis  time an entry stays valid after it was stored (0 = forever)
+     * @param weigher    weight of a value, e.g. its approximate size in bytes
+     */
+    public BoundedCache(long maxWeight, long ttlMillis, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @return cached value, or null if absent or expired
+     */
+    public V get(K key) {
+        synchronized (map) {
+            Entry<V> entry = map.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (ttlNanos > 0 && System.nanoTime() - entry.storedAt > ttlNanos) {
+                map.remove(key);
+                totalWeight -= entry.weight;
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            invalidate(key);
+            return;
+        }
+
+        synchronized (map) {
+            store(key, value, weight);
+        }
+    }
+
+    /**
+     * Current generation; pass it to putIfGeneration once the value is loaded
+     */
+    public long generation() {
+        synchronized (map) {
+            return generation;
+        }
+    }
+
+    /**
+     * Stores value only if nothing was invalidated since generation() returned generation
+     * The check and the store happen under one lock, so an invalidation either comes
+     * first (and the stale value is dropped) or comes after and removes it
+     *
+     * @return true if the value was stored
+     */
+    public boolean putIfGeneration(K key, V value, long generation) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        synchronized (map) {
+            if (this.generation != generation || weight > maxWeight) {
+                return false;
+            }
+            store(key, value, weight);
+            return true;
+        }
+    }
+
+    // caller holds the map lock
+    private void store(K key, V value, long weight) {
+        Entry<V> previous = map.put(key, new Entry<>(value, weight, System.nanoTime()));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+
+        // evict least recently used entries until we fit
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Map.Entry<K, Entry<V>> eldest = it.next();
+            it.remove();
+            totalWeight -= eldest.getValue().weight;
+            evictions.increment();
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (map) {
+            generation++;
+            Entry<V> removed = map.remove(key);
+            if (removed != null) {
+                totalWeight -= removed.weight;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (map) {
+            generation++;
+            map.clear();
+            totalWeight = 0;
+        }
+    }
+
+    /**
+     * Exports the statistics as cache_* metrics labelled cache="name"
+     */
+    public void registerMetrics(MetricsRegistry registry, String name) {
+        registry.functionCounter("cache_hits_total", "Cache lookups answered from memory", hits::sum, "cache", name);
+        registry.functionCounter("cache_misses_total", "Cache lookups that had to load", misses::sum, "cache", name);
+        registry.functionCounter("cache_evictions_total", "Entries evicted to stay within the weight limit",
+                evictions::sum, "cache", name);
+        registry.gauge("cache_entries", "Entries currently cached", () -> getStats().getSize(), "cache", name);
+        registry.gauge("cache_weight_bytes", "Approximate memory used by cached entries",
+                () -> getStats().getWeight(), "cache", name);
+    }
+
+    public CacheStats getStats() {
+        synchronized (map) {
+            return new CacheStats(map.size(), totalWeight, maxWeight,
+                    hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+        private final long storedAt;
+
+        private Entry(V value, long weight, long storedAt) {
+            this.value = value;
+            this.weight = weight;
+            this.storedAt = storedAt;
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache statistics
+     */
+    public static class CacheStats {
+        private final int size;
+        private final long weight;
+        private final long maxWeight;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+
+        public CacheStats(int size, long weight, long maxWeight,
+                          long hits, long misses, long evictions, long expirations) {
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+        }
+
+        public int getSize() { return size; }
+        public long getWeight() { return weight; }
+        public long getMaxWeight() { return maxWeight; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+
+        public double getHitRatio() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("CacheStats{size=%d, weight=%d/%d, hits=%d, misses=%d, hitRatio=%.2f, evictions=%d, expirations=%d}",
+                    size, weight, maxWeight, hits, misses, getHitRatio(), evictions, expirations);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.contactmanager.util;
+
+import com.contactmanager.metrics.LatencyHistogram;
+import com.contactmanager.metrics.MetricsRegistry;
+import com.contactmanager.metrics.RequestTrace;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used by DatabaseConnection
+ * <p>
+ * Interview Point: Opening a PostgreSQL connection costs a TCP handshake,
+ * authentication and backend process startup. A pool keeps physical connections
+ * open and hands them out again, so borrowing becomes a queue poll instead.
+ * <p>
+ * - maxSize permits (Semaphore) bound the number of connections in use
+ * - idle connections are kept LIFO so the warmest one is reused first
+ * - borrowed connections are validated (unless just used) and checked against max lifetime
+ * - a background housekeeper evicts idle connections and keeps minSize ready
+ * <p>
+ * The Connection handed out is a proxy: close() returns it to the pool
+ * instead of closing the socket, so DAO code keeps using try-with-resources.
+ */
+public class ConnectionPool {
+
+    // connections used this recently skip the isValid() round trip on borrow
+    private static final long ALIVE_BYPASS_MS = 500;
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final long borrowTimeoutMs;
+    private final int validationTimeoutSec;
+
+    // permits = connections that may still be borrowed
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+
+    // live statistics
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeNanos = new LongAdder();
+    private final AtomicLong maxBorrowTimeNanos = new AtomicLong();
+    private final LongAdder borrowTimeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    // borrow latency distribution (the fields above only give mean and max)
+    private final LatencyHistogram borrowLatency = MetricsRegistry.getDefault().histogram(
+            "db_connection_acquire_duration_seconds", "Time to borrow a pooled connection, including validation");
+
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize,
+                          long idleTimeoutMs, long maxLifetimeMs,
+                          long borrowTimeoutMs, int validationTimeoutSec) {
+        if (maxSize <= 0 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.permits = new Semaphore(maxSize, true);
+
+        registerMetrics(MetricsRegistry.getDefault());
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs, 30_000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool
+     * Blocks for at most borrowTimeoutMs when all connections are in use
+     *
+     * @return Connection proxy; close() returns it to the pool
+     * @throws SQLException if the pool is exhausted or a connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        waitingThreads.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+
+        if (!acquired) {
+            borrowTimeouts.increment();
+            throw new SQLException("Timed out after " + borrowTimeoutMs + " ms waiting for a connection "
+                    + "(active=" + activeConnections.get() + ", max=" + maxSize + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection();
+            activeConnections.incrementAndGet();
+
+            long elapsed = System.nanoTime() - start;
+            borrowCount.increment();
+            borrowTimeNanos.add(elapsed);
+            maxBorrowTimeNanos.accumulateAndGet(elapsed, Math::max);
+            borrowLatency.record(elapsed);
+            RequestTrace trace = RequestTrace.current();
+            if (trace != null) {
+                trace.add(RequestTrace.CONNECTION, start, elapsed);
+            }
+
+            return pooled.newProxy(elapsed);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes the most recently used idle connection, discarding expired or broken ones,
+     * and opens a new physical connection when none is usable
+     */
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isExpired(pooled)) {
+                closePhysical(pooled);
+                continue;
+            }
+            if (!isValid(pooled)) {
+                closePhysical(pooled);
+                continue;
+            }
+            return pooled;
+        }
+        return openPhysical();
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedAt < ALIVE_BYPASS_MS) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled) {
+        return maxLifetimeMs > 0 && System.currentTimeMillis() - pooled.createdAt >= maxLifetimeMs;
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, username, password);
+        totalConnections.incrementAndGet();
+        connectionsCreated.increment();
+        return new PooledConnection(physical);
+    }
+
+    private void closePhysical(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+        totalConnections.decrementAndGet();
+        connectionsClosed.increment();
+    }
+
+    /**
+     * Called by the proxy when the caller closes its connection
+     * Resets transaction state so the next borrower gets a clean connection
+     */
+    private void release(PooledConnection pooled) {
+        activeConnections.decrementAndGet();
+        try {
+            boolean reusable = !shutdown && !isExpired(pooled) && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                // caller left a transaction open - never leak it to the next borrower
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                closePhysical(pooled);
+            }
+        } catch (SQLException e) {
+            closePhysical(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Evicts connections idle longer than idleTimeoutMs (keeping minSize),
+     * drops connections past max lifetime and tops the pool up to minSize
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> it = idle.descendingIterator(); // oldest first
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                boolean idleTooLong = idleTimeoutMs > 0 && now - pooled.lastUsedAt >= idleTimeoutMs
+                        && totalConnections.get() > minSize;
+                if ((idleTooLong || isExpired(pooled)) && idle.remove(pooled)) {
+                    closePhysical(pooled);
+                }
+            }
+
+            while (!shutdown && totalConnections.get() < minSize) {
+                idle.offerLast(openPhysical());
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool housekeeping failed: " + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool housekeeping error: " + e);
+        }
+    }
+
+    /**
+     * Closes all idle connections and rejects further borrows
+     * Borrowed connections are closed when they are returned
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    // gauges read the live counters; a pool created later replaces these
+    private void registerMetrics(MetricsRegistry registry) {
+        registry.gauge("db_pool_active_connections", "Connections borrowed", activeConnections::get);
+        registry.gauge("db_pool_idle_connections", "Connections open and idle", idle::size);
+        registry.gauge("db_pool_waiting_threads", "Threads waiting for a connection", waitingThreads::get);
+        registry.gauge("db_pool_max_connections", "Pool size limit", () -> maxSize);
+        registry.functionCounter("db_pool_borrow_timeouts_total", "Borrows that gave up waiting",
+                borrowTimeouts::sum);
+        registry.functionCounter("db_pool_connections_created_total", "Physical connections opened",
+                connectionsCreated::sum);
+    }
+
+    /**
+     * Returns a point-in-time snapshot of pool statistics
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        return new PoolStats(
+                activeConnections.get(),
+                idle.size(),
+                waitingThreads.get(),
+                totalConnections.get(),
+                maxSize,
+                borrows,
+                borrowTimeouts.sum(),
+                borrows == 0 ? 0 : borrowTimeNanos.sum() / borrows,
+                maxBorrowTimeNanos.get(),
+                connectionsCreated.sum(),
+                connectionsClosed.sum());
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Physical connection plus bookkeeping
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newProxy(long borrowWaitNanos) {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handler(this, borrowWaitNanos));
+        }
+    }
+
+    /**
+     * Delegates every call to the physical connection, except close()
+     * which hands the connection back to the pool exactly once
+     */
+    private final class Handler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final long borrowWaitNanos;
+        private boolean closed;
+
+        private Handler(PooledConnection pooled, long borrowWaitNanos) {
+            this.pooled = pooled;
+            this.borrowWaitNanos = borrowWaitNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    // statements of traced requests report their execution time; others are not wrapped
+                    if (result instanceof Statement && RequestTrace.current() != null) {
+                        return tracedStatement((Statement) result, method.getReturnType());
+                    }
+                    return result;
+            }
+        }
+    }
+
+    /**
+     * How long borrowing this connection took (waiting for a permit plus validation)
+     *
+     * @return nanoseconds, or -1 if connection did not come from a ConnectionPool
+     */
+    public static long getBorrowWaitNanos(Connection connection) {
+        if (Proxy.isProxyClass(connection.getClass())
+                && Proxy.getInvocationHandler(connection) instanceof Handler) {
+            return ((Handler) Proxy.getInvocationHandler(connection)).borrowWaitNanos;
+        }
+        return -1;
+    }
+
+    /**
+     * Wraps a statement so execute* calls add to the SQL phase of the current request trace
+     */
+    private static Object tracedStatement(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    boolean execute = method.getName().startsWith("execute");
+                    long start = execute ? System.nanoTime() : 0;
+                    try {
+                        return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if (execute) {
+                            RequestTrace.record(RequestTrace.SQL, start);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Immutable snapshot of pool statistics
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final int waiting;
+        private final int total;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long borrowTimeouts;
+        private final long avgBorrowNanos;
+        private final long maxBorrowNanos;
+        private final long connectionsCreated;
+        private final long connectionsClosed;
+
+        public PoolStats(int active, int idle, int waiting, int total, int maxSize,
+                         long borrowCount, long borrowTimeouts,
+                         long avgBorrowNanos, long maxBorrowNanos,
+                         long connectionsCreated, long connectionsClosed) {
+            this.active = active;
+            this.idle = idle;
+            this.waiting = waiting;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.borrowTimeouts = borrowTimeouts;
+            this.avgBorrowNanos = avgBorrowNanos;
+            this.maxBorrowNanos = maxBorrowNanos;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsClosed = connectionsClosed;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiting() { return waiting; }
+        public int getTotal() { return total; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+        public long getAvgBorrowNanos() { return avgBorrowNanos; }
+        public long getMaxBorrowNanos() { return maxBorrowNanos; }
+        public long getConnectionsCreated() { return connectionsCreated; }
+        public long getConnectionsClosed() { return connectionsClosed; }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "PoolStats{active=%d, idle=%d, waiting=%d, total=%d/%d, borrows=%d, timeouts=%d, "
+                            + "avgBorrow=%.3f ms, maxBorrow=%.3f ms, created=%d, closed=%d}",
+                    active, idle, waiting, total, maxSize, borrowCount, borrowTimeouts,
+                    avgBorrowNanos / 1_000_000.0, maxBorrowNanos / 1_000_000.0,
+                    connectionsCreated, connectionsClosed);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.contactmanager.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming CSV reader (RFC 4180)
+ * <p>
+ * Reads one record at a time, so memory use does not depend on file size.
+ * Supports quoted fields, escaped quotes ("") and line breaks inside quotes.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader, 64 * 1024);
+    }
+
+    /**
+     * Reads the next record
+     *
+     * @return fields of the next record, or null at end of input
+     * @throws IOException if reading fails or a quoted field is never closed
+     */
+    public String[] readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (inQuotes) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    inQuotes = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+
+            if (!inQuotes) {
+                break;
+            }
+
+            // quoted field continues on the next line
+            line = reader.readLine();
+            if (line == null) {
+                throw new IOException("Unterminated quoted field starting before line " + lineNumber);
+            }
+            lineNumber++;
+            field.append('\n');
+        }
+
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Line number of the last line read (1-based)
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
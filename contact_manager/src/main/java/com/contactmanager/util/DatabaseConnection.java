@@ -3,7 +3,6 @@ package com.contactmanager.util;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.SQLOutput;
 import java.util.Properties;
@@ -19,6 +18,11 @@ public class DatabaseConnection {
     private static String DB_PASSWORD;
     private static String DB_DRIVER;
 
+    // All settings from database.properties (pool, batching, ...)
+    private static final Properties PROPERTIES = new Properties();
+
+    // Connection pool - created once configuration is loaded
+    private static volatile ConnectionPool pool;
 
     // Static block - runs when class is loaded (before any method call)
     static {
@@ -31,7 +35,7 @@ public class DatabaseConnection {
      */
 
     private static void loadDatabaseProperties() {
-        Properties properties = new Properties();
+        Properties properties = PROPERTIES;
 
         // Try-with-resources: Automatically closes InputStream after use
         try (InputStream input = DatabaseConnection.class
@@ -67,23 +71,102 @@ public class DatabaseConnection {
     }
 
     /**
-     * Creates and returns a new database connection
+     * Borrows a connection from the connection pool
      *
      * @return Connection object connected to PostgreSQL database
-     * @throws SQLException if connection fails
+     * @throws SQLException if connection fails or the pool is exhausted
      *                      <p>
      *                      Interview Point: Each DAO method will call this to get a connection,
-     *                      then close it in finally block or try-with-resources
+     *                      then close it in finally block or try-with-resources.
+     *                      close() hands the connection back to the pool instead of
+     *                      tearing down the TCP connection
      */
 
     public static Connection getConnection() throws SQLException {
-        if (DB_URL == null || DB_USERNAME == null || DB_PASSWORD == null) {
-            throw new SQLException("Database configuration not loaded properly!");
+        return getPool().borrow();
+    }
+
+    /**
+     * Returns the connection pool, creating it on first use
+     * Pool settings come from the db.pool.* keys in database.properties
+     */
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseConnection.class) {
+            if (pool == null) {
+                if (DB_URL == null || DB_USERNAME == null || DB_PASSWORD == null) {
+                    throw new SQLException("Database configuration not loaded properly!");
+                }
+                pool = new ConnectionPool(DB_URL, DB_USERNAME, DB_PASSWORD,
+                        getIntProperty("db.pool.minSize", 2),
+                        getIntProperty("db.pool.maxSize", 10),
+                        getLongProperty("db.pool.idleTimeoutMs", 600_000),
+                        getLongProperty("db.pool.maxLifetimeMs", 1_800_000),
+                        getLongProperty("db.pool.borrowTimeoutMs", 5_000),
+                        getIntProperty("db.pool.validationTimeoutSec", 2));
+            }
+            return pool;
         }
+    }
 
-//         create and return connection
-        return DriverManager.getConnection(DB_URL, DB_USERNAME, DB_PASSWORD);
+    /**
+     * Live connection pool statistics (active / idle / waiting, borrow latency)
+     *
+     * @return snapshot of pool statistics, or null if the pool has not been created yet
+     */
+    public static ConnectionPool.PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    /**
+     * Closes all pooled connections
+     * Call on application shutdown
+     */
+    public static void shutdown() {
+        synchronized (DatabaseConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    /**
+     * Reads an optional setting from database.properties
+     *
+     * @param key          property key
+     * @param defaultValue value used when the key is missing
+     * @return configured value or defaultValue
+     */
+    public static String getProperty(String key, String defaultValue) {
+        String value = PROPERTIES.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using default " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLongProperty(String key, long defaultValue) {
+        try {
+            return Long.parseLong(getProperty(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value for " + key + ", using default " + defaultValue);
+            return defaultValue;
+        }
+    }
 
+    public static boolean getBooleanProperty(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
     }
 
     /**
@@ -98,6 +181,7 @@ public class DatabaseConnection {
             if (connection != null && !connection.isClosed()) {
                 System.out.println("DATABASE CONNECTION SUCCESS");
                 System.out.println("Connected to " + DB_URL);
+                System.out.println("Pool " + getPoolStats());
                 return true;
             }
         } catch (SQLException e) {
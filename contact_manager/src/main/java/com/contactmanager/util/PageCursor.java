@@ -0,0 +1,64 @@
+package com.contactmanager.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset (seek) pagination
+ * <p>
+ * Interview Point: OFFSET pagination makes the database read and discard every
+ * row before the requested page, so page N costs O(N). A keyset cursor remembers
+ * the sort key and id of the last row returned, and the next page starts with
+ * "WHERE (sort_key, id) > (?, ?)" - an index seek that costs the same for every page.
+ * <p>
+ * Clients treat the encoded value as an opaque token and just send it back.
+ */
+public class PageCursor {
+
+    private final String sortKey;
+    private final int id;
+
+    public PageCursor(String sortKey, int id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token
+     */
+    public String encode() {
+        String raw = id + ":" + (sortKey == null ? "" : sortKey);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by encode()
+     *
+     * @param token cursor token from the client
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int id = Integer.parseInt(raw.substring(0, separator));
+            return new PageCursor(raw.substring(separator + 1), id);
+        } catch (IllegalArgumentException e) {
+            // also covers NumberFormatException and bad Base64
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+-- Trigram index for substring name search
+-- Run once on an existing database created from schema.sql:
+--   psql -d contact_manager -f V2__trigram_search.sql
+--
+-- ILIKE '%x%' cannot use a B-tree index (leading wildcard), so it scans the table.
+-- A pg_trgm GiST index answers ILIKE '%x%' (for 3+ characters) and returns the matches
+-- nearest first for ORDER BY <-> (trigram distance), so ranking stops after LIMIT rows.
+-- Both search queries filter on the full-name expression only, so that is the one index.
+-- Without the extension the application falls back to plain ILIKE search.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Per-column and GIN variants of these indexes serve no query; drop them if present
+DROP INDEX IF EXISTS idx_contacts_first_name_trgm;
+DROP INDEX IF EXISTS idx_contacts_last_name_trgm;
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_indexes
+               WHERE indexname = 'idx_contacts_full_name_trgm' AND indexdef LIKE '%USING gin%') THEN
+        DROP INDEX idx_contacts_full_name_trgm;
+    END IF;
+END $$;
+
+-- Must match the full-name expression used by ContactDAOImpl exactly
+CREATE INDEX IF NOT EXISTS idx_contacts_full_name_trgm
+    ON contacts USING gist ((first_name || ' ' || coalesce(last_name, '')) gist_trgm_ops);
+
+ANALYZE contacts;
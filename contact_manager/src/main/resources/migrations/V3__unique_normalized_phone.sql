@@ -0,0 +1,15 @@
+-- Unique phone numbers, compared by digits only ("98765-43210" = "9876543210")
+-- Run once on an existing database created from schema.sql:
+--   psql -d contact_manager -f V3__unique_normalized_phone.sql
+--
+-- Lets ContactService check for an existing number with one index lookup
+-- instead of loading every contact, and makes the database reject duplicates
+-- even when two inserts race.
+--
+-- The index cannot be built while duplicates exist. Find them with:
+--   SELECT regexp_replace(phone, '[^0-9]', '', 'g') AS digits, array_agg(id)
+--   FROM contacts GROUP BY 1 HAVING count(*) > 1;
+
+-- CONCURRENTLY avoids blocking writes while the index builds (cannot run inside a transaction)
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_phone_digits
+    ON contacts ((regexp_replace(phone, '[^0-9]', '', 'g')));
@@ -0,0 +1,54 @@
+-- Delta sync: row versions and tombstones for GET /api/contacts/changes
+-- Run once on an existing database created from schema.sql (PostgreSQL 13+):
+--   psql -d contact_manager -f V4__change_feed.sql
+--
+-- Every write stamps the row with the id of the writing transaction (xid8, 64-bit,
+-- never wraps). Transaction ids only grow, and the feed returns only versions below
+-- the oldest transaction still running (pg_snapshot_xmin), so a row committed late
+-- by a long transaction can never fall behind a watermark a client already holds.
+-- A timestamp or sequence column cannot promise that: values are assigned before
+-- commit, and clocks skew.
+--
+-- Deleted rows leave a tombstone so clients learn about deletes.
+-- Tombstones older than every client's watermark can be removed, e.g.:
+--   DELETE FROM contact_tombstones WHERE deleted_at < now() - interval '30 days';
+-- (clients that were offline longer must then do a full resync with since empty)
+
+ALTER TABLE contacts
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE TABLE IF NOT EXISTS contact_tombstones (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL,
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION contacts_stamp_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION contacts_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO contact_tombstones (id, version)
+    VALUES (OLD.id, pg_current_xact_id()::text::bigint)
+    ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, deleted_at = CURRENT_TIMESTAMP;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS contacts_version_on_update ON contacts;
+CREATE TRIGGER contacts_version_on_update
+    BEFORE UPDATE ON contacts
+    FOR EACH ROW EXECUTE FUNCTION contacts_stamp_version();
+
+DROP TRIGGER IF EXISTS contacts_tombstone_on_delete ON contacts;
+CREATE TRIGGER contacts_tombstone_on_delete
+    AFTER DELETE ON contacts
+    FOR EACH ROW EXECUTE FUNCTION contacts_record_tombstone();
+
+-- The feed seeks "(version, id) > (?, ?)" - proportional to the delta, not the table
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contacts_version_id ON contacts (version, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_contact_tombstones_version_id ON contact_tombstones (version, id);
@@ -1,5 +1,6 @@
 -- Drop table if exists (for fresh start)
 DROP TABLE IF EXISTS contacts;
+DROP TABLE IF EXISTS contact_tombstones;
 
 -- Create contacts table
 CREATE TABLE contacts (
@@ -10,13 +11,75 @@ CREATE TABLE contacts (
     email VARCHAR(100) UNIQUE,
     address TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- id of the transaction that last wrote the row (see migrations/V4__change_feed.sql)
+    version BIGINT NOT NULL DEFAULT pg_current_xact_id()::text::bigint
 );
 
+-- Deleted contacts, so the change feed can report deletes
+CREATE TABLE contact_tombstones (
+    id INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL,
+    deleted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE OR REPLACE FUNCTION contacts_stamp_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION contacts_record_tombstone() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO contact_tombstones (id, version)
+    VALUES (OLD.id, pg_current_xact_id()::text::bigint)
+    ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, deleted_at = CURRENT_TIMESTAMP;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER contacts_version_on_update
+    BEFORE UPDATE ON contacts
+    FOR EACH ROW EXECUTE FUNCTION contacts_stamp_version();
+
+CREATE TRIGGER contacts_tombstone_on_delete
+    AFTER DELETE ON contacts
+    FOR EACH ROW EXECUTE FUNCTION contacts_record_tombstone();
+
 -- Create indexes for faster search
 CREATE INDEX idx_contacts_name ON contacts(first_name, last_name);
 CREATE INDEX idx_contacts_phone ON contacts(phone);
 
+-- One contact per phone number, compared by digits only
+-- (must match PHONE_DIGITS in ContactDAOImpl exactly)
+CREATE UNIQUE INDEX idx_contacts_phone_digits ON contacts ((regexp_replace(phone, '[^0-9]', '', 'g')));
+
+-- Keyset pagination of search results: ORDER BY first_name, id
+-- (listing pages by id use the primary key index)
+CREATE INDEX idx_contacts_first_name_id ON contacts(first_name, id);
+
+-- Change feed: WHERE (version, id) > (?, ?) ORDER BY version, id
+CREATE INDEX idx_contacts_version_id ON contacts(version, id);
+CREATE INDEX idx_contact_tombstones_version_id ON contact_tombstones(version, id);
+
+-- Substring search: ILIKE '%x%' and ORDER BY <-> (nearest by trigram distance) on the full-name
+-- expression (must match FULL_NAME in ContactDAOImpl exactly). GiST, unlike GIN, returns rows in
+-- distance order, so a ranked search reads only LIMIT rows. Only where pg_trgm can be installed -
+-- on plain PostgreSQL the schema still loads and the application uses basic ILIKE search.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm') THEN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+        CREATE INDEX idx_contacts_full_name_trgm
+            ON contacts USING gist ((first_name || ' ' || coalesce(last_name, '')) gist_trgm_ops);
+    ELSE
+        RAISE NOTICE 'pg_trgm not available - name search will use basic ILIKE';
+    END IF;
+EXCEPTION WHEN insufficient_privilege THEN
+    RAISE NOTICE 'no privilege to create pg_trgm - name search will use basic ILIKE';
+END $$;
+
 -- Insert sample test data
 INSERT INTO contacts (first_name, last_name, phone, email, address)
 VALUES